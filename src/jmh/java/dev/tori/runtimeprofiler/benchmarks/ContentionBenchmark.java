@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.benchmarks;
+
+import dev.tori.runtimeprofiler.ConcurrentProfiler;
+import dev.tori.runtimeprofiler.Location;
+import dev.tori.runtimeprofiler.LocDataFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures push/pop pairs on one {@link ConcurrentProfiler} shared by several threads, against a single thread,
+ * and the cost of {@linkplain ConcurrentProfiler#snapshot() snapshots} taken while the threads record.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentionBenchmark {
+
+    @Param({"true", "false"})
+    public boolean perThread;
+
+    private ConcurrentProfiler profiler;
+    private Location outer;
+    private Location inner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        profiler = new ConcurrentProfiler("benchmark", new LocDataFactory(TimeUnit.NANOSECONDS), 16, perThread);
+        outer = profiler.location("outer");
+        inner = profiler.location("inner");
+        profiler.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        profiler.stop();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void uncontended() {
+        pushPop();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void contended() {
+        pushPop();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object contendedWithSnapshots(Counter counter) {
+        pushPop();
+        // One snapshot per 10k pairs per thread
+        return (++counter.pairs % 10_000 == 0) ? profiler.snapshot() : null;
+    }
+
+    @State(Scope.Thread)
+    public static class Counter {
+        long pairs;
+    }
+
+    private void pushPop() {
+        profiler.push(outer);
+        profiler.push(inner);
+        profiler.pop();
+        profiler.pop();
+    }
+}
\ No newline at end of file
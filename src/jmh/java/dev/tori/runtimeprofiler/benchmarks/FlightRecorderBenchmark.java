@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.benchmarks;
+
+import dev.tori.runtimeprofiler.LocDataFactory;
+import dev.tori.runtimeprofiler.Location;
+import dev.tori.runtimeprofiler.Profiler;
+import dev.tori.runtimeprofiler.jfr.ScopeEvent;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a push/pop with {@link ScopeEvent Flight Recorder events} turned off in the factory ({@code OFF}), turned
+ * on but not enabled by any recording ({@code DISABLED}), and enabled by a recording whose threshold no visit
+ * reaches ({@code BELOW_THRESHOLD}).
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class FlightRecorderBenchmark {
+
+    public enum Events {
+        OFF, DISABLED, BELOW_THRESHOLD
+    }
+
+    @Param
+    public Events events;
+
+    private Profiler profiler;
+    private Location location;
+    private Recording recording;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final LocDataFactory factory = new LocDataFactory(TimeUnit.NANOSECONDS).withFlightRecorder(events != Events.OFF);
+        profiler = new Profiler("benchmark", factory, 4);
+        location = profiler.location("location");
+        profiler.start();
+        if (events == Events.BELOW_THRESHOLD) {
+            recording = new Recording();
+            recording.enable(ScopeEvent.NAME).withThreshold(Duration.ofSeconds(1));
+            recording.start();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        profiler.stop();
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Benchmark
+    public void pushPop() {
+        profiler.push(location);
+        profiler.pop();
+    }
+}
\ No newline at end of file
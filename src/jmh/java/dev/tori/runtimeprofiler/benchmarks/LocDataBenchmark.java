@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.benchmarks;
+
+import dev.tori.runtimeprofiler.LocData;
+import dev.tori.runtimeprofiler.LocDataFactory;
+import dev.tori.runtimeprofiler.Sampling;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single {@link LocData#push()}/{@link LocData#pop()} pair, without the call stack around it.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LocDataBenchmark {
+
+    @Param({"plain", "histogram", "sampled"})
+    public String config;
+
+    private LocData data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocDataFactory factory = new LocDataFactory(TimeUnit.NANOSECONDS);
+        factory = switch (config) {
+            case "histogram" -> factory.withHistograms(true);
+            case "sampled" -> factory.withSampling(Sampling.fixed(16));
+            default -> factory;
+        };
+        data = factory.create("benchmark", 1);
+    }
+
+    @Benchmark
+    public void pushPop() {
+        data.push();
+        data.pop();
+    }
+}
\ No newline at end of file
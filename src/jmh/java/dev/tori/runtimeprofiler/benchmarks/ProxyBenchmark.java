@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.benchmarks;
+
+import dev.tori.runtimeprofiler.Location;
+import dev.tori.runtimeprofiler.Profiler;
+import dev.tori.runtimeprofiler.Profiling;
+import dev.tori.runtimeprofiler.Scope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-call overhead of a {@link Profiling#wrap} proxy against a direct call, the same call in a
+ * manually opened {@link Scope}, and a reflective {@link Method#invoke} in a scope.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class ProxyBenchmark {
+
+    public interface Service {
+        int apply(int value);
+    }
+
+    public static final class ServiceImpl implements Service {
+        @Override
+        public int apply(int value) {
+            return value * 31 + 7;
+        }
+    }
+
+    private Profiler profiler;
+    private Service direct;
+    private Service proxied;
+    private Location location;
+    private Method method;
+    private int value;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        profiler = new Profiler("benchmark");
+        profiler.start();
+        direct = new ServiceImpl();
+        proxied = Profiling.wrap(Service.class, direct, profiler);
+        location = profiler.location("Service.apply");
+        method = Service.class.getMethod("apply", int.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        profiler.stop();
+    }
+
+    @Benchmark
+    public int direct() {
+        return direct.apply(value++);
+    }
+
+    @Benchmark
+    public int scope() {
+        try (Scope ignored = profiler.scope(location)) {
+            return direct.apply(value++);
+        }
+    }
+
+    @Benchmark
+    public int proxy() {
+        return proxied.apply(value++);
+    }
+
+    @Benchmark
+    public Object reflective() throws ReflectiveOperationException {
+        try (Scope ignored = profiler.scope(location)) {
+            return method.invoke(direct, value++);
+        }
+    }
+}
\ No newline at end of file
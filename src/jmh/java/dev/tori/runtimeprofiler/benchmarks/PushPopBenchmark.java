@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.benchmarks;
+
+import dev.tori.runtimeprofiler.Location;
+import dev.tori.runtimeprofiler.Profiler;
+import dev.tori.runtimeprofiler.Scope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full descent and climb of the call stack through {@link Profiler}, {@code depth} frames deep, under
+ * one of {@code fanOut} top-level locations. The call tree has {@code fanOut * depth} nodes.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class PushPopBenchmark {
+
+    @Param({"1", "8", "32"})
+    public int depth;
+
+    @Param({"1", "16", "256"})
+    public int fanOut;
+
+    private Profiler profiler;
+    private Location[] top;
+    private Location[] frames;
+    private String[] topNames;
+    private String[] frameNames;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        profiler = new Profiler("benchmark", TimeUnit.NANOSECONDS, depth + 2);
+        top = new Location[fanOut];
+        topNames = new String[fanOut];
+        for (int i = 0; i < fanOut; i++) {
+            topNames[i] = "top" + i;
+            top[i] = profiler.location(topNames[i]);
+        }
+        frames = new Location[depth];
+        frameNames = new String[depth];
+        for (int i = 0; i < depth; i++) {
+            frameNames[i] = "frame" + i;
+            frames[i] = profiler.location(frameNames[i]);
+        }
+        profiler.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        profiler.stop();
+    }
+
+    @Benchmark
+    public void location() {
+        final int index = next++ & Integer.MAX_VALUE;
+        profiler.push(top[index % fanOut]);
+        for (int i = 1; i < depth; i++) {
+            profiler.push(frames[i]);
+        }
+        for (int i = 0; i < depth; i++) {
+            profiler.pop();
+        }
+    }
+
+    @Benchmark
+    public void string() {
+        final int index = next++ & Integer.MAX_VALUE;
+        profiler.push(topNames[index % fanOut]);
+        for (int i = 1; i < depth; i++) {
+            profiler.push(frameNames[i]);
+        }
+        for (int i = 0; i < depth; i++) {
+            profiler.pop();
+        }
+    }
+
+    @Benchmark
+    public void swap() {
+        final int index = next++ & Integer.MAX_VALUE;
+        profiler.push(top[index % fanOut]);
+        for (int i = 1; i < depth; i++) {
+            profiler.swap(frames[i]);
+        }
+        profiler.pop();
+    }
+
+    @Benchmark
+    public void scope() {
+        final int index = next++ & Integer.MAX_VALUE;
+        try (Scope ignored = profiler.scope(top[index % fanOut])) {
+            descend(1);
+        }
+    }
+
+    private void descend(int level) {
+        if (level < depth) {
+            try (Scope ignored = profiler.scope(frames[level])) {
+                descend(level + 1);
+            }
+        }
+    }
+}
\ No newline at end of file
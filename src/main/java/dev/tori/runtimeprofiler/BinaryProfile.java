@@ -0,0 +1,630 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import dev.tori.runtimeprofiler.config.Config;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A read-only profiler backed by a memory-mapped file in the binary profile format.
+ * <p>
+ * The format stores each path segment once in a string table, and every statistic as a column of primitives
+ * in {@link IProfiler#getEntries() entry} order. Opening a file only reads its header and string table;
+ * {@link LocData} are decoded from the mapped columns while iterating over the entries. Files are mapped in
+ * windows of at most {@code 1 GiB}, so their size is not limited by that of a single mapping.
+ * <p>
+ * Latency histograms are not stored, so percentiles of a read profile are unavailable.
+ * <p>
+ * The JDK offers no way to unmap a file, so the mapping lives as long as this profile is reachable, and is
+ * released once it's garbage collected. Until then the file can't be deleted on Windows, and truncating it makes
+ * reading fail with an {@link InternalError}.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @see #write(IProfiler, Path)
+ * @see #open(Path)
+ * @since 2.1.0
+ */
+public final class BinaryProfile implements IProfiler {
+
+    /**
+     * The first four bytes of every file, {@code RPRF}.
+     */
+    public static final int MAGIC = 0x46525052;
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 128;
+    private static final int INT_COLUMNS = 2;
+    private static final int LONG_COLUMNS = 10;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int FLAG_COMPENSATED = 1;
+    // a power of two, so that no aligned value crosses a window
+    private static final int WINDOW_BITS = 30;
+    private static final long WINDOW_SIZE = 1L << WINDOW_BITS;
+    private static final TimeUnit[] UNITS = TimeUnit.values();
+
+    private final @NotNull MappedByteBuffer @NotNull [] windows;
+    private final int nodes;
+    private final @NotNull TimeUnit precision;
+    private final long totalRuntimeNanos;
+    private final long timestamp;
+    private final @NotNull String label;
+    private final @NotNull String separator;
+    private final @NotNull String @NotNull [] strings;
+    private final @NotNull LocDataFactory factory;
+    private final @Nullable Calibration calibration;
+    private final boolean compensated;
+    private final @NotNull Set<Map.Entry<String, LocData>> entries;
+
+    private BinaryProfile(@NotNull MappedByteBuffer @NotNull [] windows, long size) throws IOException {
+        this.windows = windows;
+        for (MappedByteBuffer window : windows) {
+            window.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (size < HEADER_SIZE || getInt(0) != MAGIC) {
+            throw new IOException("Not a binary profile");
+        }
+        final int version = getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary profile version " + version);
+        }
+        this.nodes = getInt(8);
+        final int unit = getInt(12);
+        if (nodes < 0 || unit < 0 || unit >= UNITS.length) {
+            throw new IOException("Invalid binary profile header");
+        }
+        this.precision = UNITS[unit];
+        this.totalRuntimeNanos = getLong(16);
+        this.timestamp = getLong(24);
+        this.strings = readStrings(getLong(32));
+        final long pairNanos = getLong(40);
+        this.calibration = (pairNanos < 0L) ? null : new Calibration(pairNanos, getLong(48));
+        this.label = strings[getInt(56)];
+        final int initialInterval = getInt(60);
+        final int maxInterval = getInt(64);
+        this.compensated = (getInt(68) & FLAG_COMPENSATED) != 0;
+        this.separator = strings[getInt(72)];
+        final Sampling sampling = (initialInterval == maxInterval) ? Sampling.fixed(maxInterval) : Sampling.adaptive(maxInterval);
+        this.factory = new LocDataFactory(precision).withSampling(sampling);
+        this.entries = new EntrySet();
+    }
+
+    /**
+     * Memory-maps the given file, which stays mapped until the returned profile is garbage collected.
+     *
+     * @param file a file written by {@link #write(IProfiler, Path)}.
+     * @return a read-only view of the profile.
+     * @throws IOException if the file can't be read or is not a binary profile.
+     */
+    @NotNull
+    public static BinaryProfile open(@NotNull Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final MappedByteBuffer[] windows = new MappedByteBuffer[(int) ((size + WINDOW_SIZE - 1) >>> WINDOW_BITS)];
+            for (int i = 0; i < windows.length; i++) {
+                final long position = (long) i << WINDOW_BITS;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+            }
+            return new BinaryProfile(windows, size);
+        }
+    }
+
+    /**
+     * Writes the statistics of the given profiler to {@code file}, replacing it if it exists.
+     * <p>
+     * The profiler's entries are written in iteration order if it's depth-first, as by default. Otherwise, e.g. for a
+     * {@linkplain IProfiler#sorted(java.util.Comparator) sorted} view, they are written depth-first, with siblings in
+     * their relative iteration order. Entries whose parent is not an entry are stored at the top level, by their
+     * full path.
+     *
+     * @param profiler the profiler to write; must not be running.
+     * @param file     the file to write to.
+     * @throws IOException if the file can't be written.
+     */
+    public static void write(@NotNull IProfiler profiler, @NotNull Path file) throws IOException {
+        final String separator = Config.pathSeparator();
+        final Collection<Map.Entry<String, LocData>> entries = depthFirst(profiler.getEntries(), separator);
+        final int nodes = entries.size();
+        final Map<String, Integer> stringIndex = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ColumnWriter[] columns = new ColumnWriter[INT_COLUMNS + LONG_COLUMNS];
+            long offset = HEADER_SIZE;
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = new ColumnWriter(channel, offset);
+                offset = align(offset + (long) nodes * ((i < INT_COLUMNS) ? Integer.BYTES : Long.BYTES));
+            }
+            final long stringsOffset = offset;
+
+            // the closest preceding ancestors at each depth, as call tree nodes or as paths
+            final List<LocData> nodeAncestors = new ArrayList<>();
+            final List<String> pathAncestors = new ArrayList<>();
+            Sampling sampling = Sampling.NONE;
+            int written = 0;
+            for (Map.Entry<String, LocData> entry : entries) {
+                if (written++ == nodes) {
+                    throw new IllegalStateException("Profiler modified while writing");
+                }
+                final LocData data = entry.getValue();
+                if (written == 1) {
+                    sampling = data.sampling();
+                }
+                final int depth;
+                final String name;
+                if (isChildOfLast(data, nodeAncestors)) {
+                    // fast path: no need to build the full path
+                    depth = data.depth();
+                    name = data.location().name();
+                    truncate(nodeAncestors, depth - 1);
+                    nodeAncestors.add(data);
+                    truncate(pathAncestors, depth - 1);
+                } else {
+                    final String path = entry.getKey();
+                    while (!pathAncestors.isEmpty() && !isChildPath(path, pathAncestors.get(pathAncestors.size() - 1), separator)) {
+                        pathAncestors.remove(pathAncestors.size() - 1);
+                    }
+                    name = pathAncestors.isEmpty() ? path : path.substring(pathAncestors.get(pathAncestors.size() - 1).length() + separator.length());
+                    pathAncestors.add(path);
+                    depth = pathAncestors.size();
+                    truncate(nodeAncestors, depth - 1);
+                }
+                columns[0].putInt(depth);
+                columns[1].putInt(intern(name, stringIndex, strings));
+                columns[2].putLong(data.visits());
+                columns[3].putLong(data.sampledVisits());
+                columns[4].putLong(data.totalNanos());
+                columns[5].putLong(data.avgNanos());
+                columns[6].putLong(data.minNanos());
+                columns[7].putLong(data.maxNanos());
+                columns[8].putLong(data.selfNanos());
+                columns[9].putLong(data.exceptionalVisits());
+                columns[10].putLong(data.exceptionalTotalNanos());
+                columns[11].putLong(data.recursiveVisits());
+            }
+            if (written != nodes) {
+                throw new IllegalStateException("Profiler modified while writing");
+            }
+            for (ColumnWriter column : columns) {
+                column.flush();
+            }
+            final int labelIndex = intern(profiler.getLabel(), stringIndex, strings);
+            final int separatorIndex = intern(separator, stringIndex, strings);
+            writeStrings(channel, stringsOffset, strings);
+
+            final Calibration calibration = profiler.getCalibration();
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(nodes)
+                    .putInt(profiler.getTimingPrecision().ordinal())
+                    .putLong(profiler.getTotalRuntime(TimeUnit.NANOSECONDS))
+                    .putLong(System.currentTimeMillis())
+                    .putLong(stringsOffset)
+                    .putLong((calibration == null) ? -1L : calibration.pairNanos())
+                    .putLong((calibration == null) ? -1L : calibration.emptyScopeNanos())
+                    .putInt(labelIndex)
+                    .putInt(sampling.initialInterval())
+                    .putInt(sampling.maxInterval())
+                    .putInt(profiler.isOverheadCompensated() ? FLAG_COMPENSATED : 0)
+                    .putInt(separatorIndex);
+            header.clear();
+            writeFully(channel, header, 0L);
+        }
+    }
+
+    /**
+     * @return the time this profile was written, in milliseconds since the epoch.
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public void start() {
+        throw readOnly();
+    }
+
+    @Override
+    public LocData stop() {
+        throw readOnly();
+    }
+
+    @Override
+    public void push(@NotNull String location) {
+        throw readOnly();
+    }
+
+    @NotNull
+    @Override
+    public Scope scope(@NotNull Location location) {
+        throw readOnly();
+    }
+
+    @Override
+    public LocData pop() {
+        throw readOnly();
+    }
+
+    @Override
+    public LocData swapIf(@NotNull String location) {
+        throw readOnly();
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public TimeUnit getTimingPrecision() {
+        return precision;
+    }
+
+    /**
+     * Every iteration decodes new {@link LocData} from the mapped file.
+     *
+     * @return an unmodifiable view of every {@link LocData} in the order they were written, keyed by full path.
+     */
+    @Override
+    public Set<Map.Entry<String, LocData>> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public long getTotalRuntime() {
+        return getTotalRuntime(precision);
+    }
+
+    @Override
+    public long getTotalRuntime(@NotNull TimeUnit unit) {
+        return unit.convert(totalRuntimeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Nullable
+    @Override
+    public Calibration getCalibration() {
+        return calibration;
+    }
+
+    @Override
+    public boolean isOverheadCompensated() {
+        return compensated;
+    }
+
+    @NotNull
+    private String[] readStrings(long offset) {
+        final int count = getInt(offset);
+        final String[] strings = new String[count];
+        final byte[] bytes = new byte[getInt(offset + Integer.BYTES * (count + 1L))];
+        getBytes(offset + Integer.BYTES * (count + 2L), bytes);
+        for (int i = 0; i < count; i++) {
+            final int start = getInt(offset + Integer.BYTES * (i + 1L));
+            final int end = getInt(offset + Integer.BYTES * (i + 2L));
+            strings[i] = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    private int getInt(long offset) {
+        return windows[(int) (offset >>> WINDOW_BITS)].getInt((int) (offset & (WINDOW_SIZE - 1)));
+    }
+
+    private long getLong(long offset) {
+        return windows[(int) (offset >>> WINDOW_BITS)].getLong((int) (offset & (WINDOW_SIZE - 1)));
+    }
+
+    /**
+     * Fills {@code bytes} from the given offset, which may span several windows.
+     */
+    private void getBytes(long offset, byte @NotNull [] bytes) {
+        int copied = 0;
+        while (copied < bytes.length) {
+            final long position = offset + copied;
+            final int index = (int) (position & (WINDOW_SIZE - 1));
+            final MappedByteBuffer window = windows[(int) (position >>> WINDOW_BITS)];
+            final int length = Math.min(bytes.length - copied, window.limit() - index);
+            window.get(index, bytes, copied, length);
+            copied += length;
+        }
+    }
+
+    private static void writeStrings(@NotNull FileChannel channel, long offset, @NotNull List<String> strings) throws IOException {
+        final byte[][] encoded = new byte[strings.size()][];
+        int length = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            length += encoded[i].length;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * (encoded.length + 2) + length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(encoded.length);
+        int end = 0;
+        buffer.putInt(end);
+        for (byte[] bytes : encoded) {
+            end += bytes.length;
+            buffer.putInt(end);
+        }
+        for (byte[] bytes : encoded) {
+            buffer.put(bytes);
+        }
+        buffer.flip();
+        writeFully(channel, buffer, offset);
+    }
+
+    /**
+     * @return the given entries if each one follows its parent, or else a copy in depth-first order, with siblings
+     * in their relative iteration order.
+     */
+    @NotNull
+    private static Collection<Map.Entry<String, LocData>> depthFirst(@NotNull Set<Map.Entry<String, LocData>> entries,
+                                                                     @NotNull String separator) {
+        final List<LocData> nodeAncestors = new ArrayList<>();
+        final List<String> pathAncestors = new ArrayList<>();
+        boolean ordered = true;
+        for (Map.Entry<String, LocData> entry : entries) {
+            final LocData data = entry.getValue();
+            final int depth = data.depth();
+            if (isChildOfLast(data, nodeAncestors)) {
+                truncate(nodeAncestors, depth - 1);
+                nodeAncestors.add(data);
+                continue;
+            }
+            final String path = entry.getKey();
+            if (data.location() != null || depth < 1 || pathAncestors.size() < depth - 1
+                    || (depth > 1 && !isChildPath(path, pathAncestors.get(depth - 2), separator))) {
+                ordered = false;
+                break;
+            }
+            truncate(pathAncestors, depth - 1);
+            pathAncestors.add(path);
+        }
+        if (ordered) {
+            return entries;
+        }
+
+        // call tree nodes are keyed by themselves, any others by their path
+        final Map<Object, List<Map.Entry<String, LocData>>> children = new HashMap<>();
+        final Set<Object> keys = new HashSet<>();
+        for (Map.Entry<String, LocData> entry : entries) {
+            keys.add(key(entry));
+        }
+        final List<Map.Entry<String, LocData>> roots = new ArrayList<>();
+        for (Map.Entry<String, LocData> entry : entries) {
+            final Object parent = parentKey(entry);
+            if (parent == null || !keys.contains(parent)) {
+                roots.add(entry);
+            } else {
+                children.computeIfAbsent(parent, k -> new ArrayList<>()).add(entry);
+            }
+        }
+        final List<Map.Entry<String, LocData>> result = new ArrayList<>(keys.size());
+        final Deque<Iterator<Map.Entry<String, LocData>>> stack = new ArrayDeque<>();
+        stack.push(roots.iterator());
+        while (!stack.isEmpty()) {
+            final Iterator<Map.Entry<String, LocData>> siblings = stack.peek();
+            if (!siblings.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            final Map.Entry<String, LocData> entry = siblings.next();
+            result.add(entry);
+            final List<Map.Entry<String, LocData>> next = children.remove(key(entry));
+            if (next != null) {
+                stack.push(next.iterator());
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static Object key(@NotNull Map.Entry<String, LocData> entry) {
+        final LocData data = entry.getValue();
+        return (data.location() == null) ? entry.getKey() : data;
+    }
+
+    @Nullable
+    private static Object parentKey(@NotNull Map.Entry<String, LocData> entry) {
+        final LocData data = entry.getValue();
+        if (data.location() != null) {
+            return data.parent();
+        }
+        final String path = entry.getKey();
+        final String loc = data.loc();
+        return (data.depth() > 1 && path.length() > loc.length() && path.endsWith(loc))
+                ? path.substring(0, path.length() - loc.length())
+                : null;
+    }
+
+    /**
+     * @return {@code true} if {@code data} is a call tree node whose parent was the last written node at its depth.
+     */
+    private static boolean isChildOfLast(@NotNull LocData data, @NotNull List<LocData> ancestors) {
+        if (data.location() == null) {
+            return false;
+        }
+        final LocData parent = data.parent();
+        final int depth = data.depth();
+        if (parent == null) {
+            return depth == 1;
+        }
+        return depth >= 2 && ancestors.size() >= depth - 1 && ancestors.get(depth - 2) == parent;
+    }
+
+    private static boolean isChildPath(@NotNull String path, @NotNull String parent, @NotNull String separator) {
+        return path.length() > parent.length() + separator.length()
+                && path.startsWith(parent)
+                && path.startsWith(separator, parent.length());
+    }
+
+    private static <T> void truncate(@NotNull List<T> list, int size) {
+        if (list.size() > size) {
+            list.subList(Math.max(size, 0), list.size()).clear();
+        }
+    }
+
+    private static int intern(@NotNull String string, @NotNull Map<String, Integer> index, @NotNull List<String> strings) {
+        return index.computeIfAbsent(string, s -> {
+            strings.add(s);
+            return strings.size() - 1;
+        });
+    }
+
+    private static long align(long offset) {
+        return (offset + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    private static void writeFully(@NotNull FileChannel channel, @NotNull ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    @NotNull
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Binary profile is read-only");
+    }
+
+    /**
+     * Buffers a single column and writes it at its own position in the file.
+     */
+    private static final class ColumnWriter {
+
+        private final @NotNull FileChannel channel;
+        private final @NotNull ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        ColumnWriter(@NotNull FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        void putInt(int value) throws IOException {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            if (buffer.remaining() < Long.BYTES) {
+                flush();
+            }
+            buffer.putLong(value);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            final int length = buffer.remaining();
+            writeFully(channel, buffer, position);
+            position += length;
+            buffer.clear();
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, LocData>> {
+
+        @Override
+        public @NotNull Iterator<Map.Entry<String, LocData>> iterator() {
+            return new Iterator<>() {
+                private final long[] columns = columnOffsets();
+                private final List<LocData> ancestors = new ArrayList<>();
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return index < nodes;
+                }
+
+                @Override
+                public Map.Entry<String, LocData> next() {
+                    if (index >= nodes) {
+                        throw new NoSuchElementException();
+                    }
+                    final int depth = getInt(intAt(0));
+                    final String name = strings[getInt(intAt(1))];
+                    while (ancestors.size() >= depth) {
+                        ancestors.remove(ancestors.size() - 1);
+                    }
+                    final LocData parent = ancestors.isEmpty() ? null : ancestors.get(ancestors.size() - 1);
+                    final String path = (parent == null) ? name : parent.path() + separator + name;
+                    // loc is derived with the separator the file was written with, not the current one
+                    final int last = path.lastIndexOf(separator);
+                    final LocData data = new LocData(path, (last == -1) ? path : path.substring(last), depth, parent, factory);
+                    ancestors.add(data);
+                    data.restore(
+                            longAt(2), longAt(3), longAt(4), longAt(5), longAt(6),
+                            longAt(7), longAt(8), longAt(9), longAt(10), longAt(11)
+                    );
+                    index++;
+                    return new AbstractMap.SimpleImmutableEntry<>(path, data);
+                }
+
+                private long intAt(int column) {
+                    return columns[column] + (long) index * Integer.BYTES;
+                }
+
+                private long longAt(int column) {
+                    return getLong(columns[column] + (long) index * Long.BYTES);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return nodes;
+        }
+    }
+
+    @NotNull
+    private long[] columnOffsets() {
+        final long[] offsets = new long[INT_COLUMNS + LONG_COLUMNS];
+        long offset = HEADER_SIZE;
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = offset;
+            offset = align(offset + (long) nodes * ((i < INT_COLUMNS) ? Integer.BYTES : Long.BYTES));
+        }
+        return offsets;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The measured cost of the profiler itself.
+ * <p>
+ * Every nested push/pop adds {@code pairNanos} to the inclusive time of its ancestors, and every visit
+ * measures at least {@code emptyScopeNanos}, even if no work is done between push and pop.
+ *
+ * @param pairNanos       the time a child push/pop pair adds to its parent, in nanoseconds.
+ * @param emptyScopeNanos the time measured for a visit of an empty location, in nanoseconds.
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public record Calibration(long pairNanos, long emptyScopeNanos) {
+
+    /**
+     * No overhead.
+     */
+    public static final Calibration NONE = new Calibration(0L, 0L);
+
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int ROUNDS = 11;
+    private static final int PAIRS_PER_ROUND = 10_000;
+    private static final Location OUTER = Location.of("calibration-outer");
+    private static final Location INNER = Location.of("calibration-inner");
+    private static final ConcurrentMap<LocDataFactory, Calibration> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the calibration of the given {@code factory}, measuring it on first use.
+     * Subsequent calls with an equal factory return the cached result.
+     */
+    @NotNull
+    public static Calibration of(@NotNull LocDataFactory factory) {
+        return CACHE.computeIfAbsent(factory, Calibration::run);
+    }
+
+    /**
+     * Returns the calibration of the given {@code factory} if it was already measured, without measuring it.
+     */
+    @Nullable
+    public static Calibration cached(@NotNull LocDataFactory factory) {
+        return CACHE.get(factory);
+    }
+
+    /**
+     * Measures the overhead of profiling with {@link LocDataFactory factory}, ignoring any cached result.
+     * <p>
+     * This takes a few tens of milliseconds, mostly spent warming up the push/pop path.
+     */
+    @NotNull
+    public static Calibration measure(@NotNull LocDataFactory factory) {
+        final Calibration calibration = run(factory);
+        CACHE.put(factory, calibration);
+        return calibration;
+    }
+
+    @NotNull
+    private static Calibration run(@NotNull LocDataFactory factory) {
+        final CallStack stack = new CallStack(factory, 2);
+        final long[] pairs = new long[ROUNDS];
+        final long[] empties = new long[ROUNDS];
+        for (int round = -WARMUP_ROUNDS; round < ROUNDS; round++) {
+            stack.reset();
+            stack.push(OUTER);
+            for (int i = 0; i < PAIRS_PER_ROUND; i++) {
+                stack.push(INNER);
+                stack.pop();
+            }
+            final LocData outer = stack.pop();
+            final LocData inner = stack.tree().child(outer, INNER);
+            if (round >= 0) {
+                pairs[round] = Math.max(0L, (outer.totalNanos() - inner.totalNanos()) / PAIRS_PER_ROUND);
+                empties[round] = inner.avgNanos();
+            }
+        }
+        stack.reset();
+        Arrays.sort(pairs);
+        Arrays.sort(empties);
+        return new Calibration(pairs[ROUNDS / 2], empties[ROUNDS / 2]);
+    }
+}
\ No newline at end of file
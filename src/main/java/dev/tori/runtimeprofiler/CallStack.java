@@ -0,0 +1,494 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import dev.tori.runtimeprofiler.clock.Clock;
+import dev.tori.runtimeprofiler.jfr.ScopeEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The active path through a {@link CallTree}, held as an array of nodes indexed by depth.
+ * <p>
+ * Not thread-safe; every instance is confined to a single recording thread.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+final class CallStack {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long NOT_REENTRANT = Long.MIN_VALUE;
+
+    private final @NotNull CallTree tree;
+    private final int maxDepth;
+    private final @NotNull Clock clock;
+    private final boolean collapseRecursion;
+    private final boolean flightRecorder;
+
+    /**
+     * The active nodes, indexed by depth. Index {@code 0} holds the {@linkplain CallTree#sentinel() sentinel}.
+     */
+    private LocData[] stack;
+    private int depth;
+
+    /**
+     * Time spent in the children of each active visit, indexed by depth, so that self time can be recorded on pop.
+     */
+    private long[] childNanos;
+
+    /**
+     * Start time of each active visit that {@linkplain LocData#reenter re-entered} an already active node,
+     * or {@link #NOT_REENTRANT}, indexed by depth.
+     */
+    private long[] reentrantStarts;
+
+    /**
+     * The non-reentrant active node of each location, indexed by {@linkplain #index(Location) location index}.
+     * Only used when collapsing recursion.
+     */
+    private LocData[] active;
+
+    /**
+     * An open-addressed identity table from each location pushed since the last {@link #reset()} to its index in
+     * {@link #active}, so that the array only grows with the locations of this stack.
+     */
+    private Location[] indexedLocations;
+    private int[] indexes;
+    private int indexed;
+
+    /**
+     * Reusable scopes, indexed by depth and created on first use.
+     */
+    private Scope[] scopes;
+
+    /**
+     * The Flight Recorder event of each active visit, or {@code null} if no recording enabled it when pushed,
+     * indexed by depth. Only used when emitting events.
+     */
+    private ScopeEvent[] events;
+
+    /**
+     * Whether pushes are recorded; written by any thread.
+     */
+    private volatile boolean enabled = true;
+
+    /**
+     * The number of pushes ignored because recording was {@linkplain #setEnabled(boolean) disabled}, and not popped
+     * yet. Every push nested in an ignored one is ignored too, so that toggling never unbalances the stack.
+     */
+    private int ignored;
+
+    /**
+     * Reusable scopes of ignored pushes, indexed by {@link #ignored} and created on first use.
+     */
+    private Scope[] ignoredScopes = new Scope[0];
+
+    CallStack(@NotNull LocDataFactory factory, int maxDepth) {
+        this.tree = new CallTree(factory);
+        this.maxDepth = maxDepth;
+        this.clock = factory.clock();
+        this.collapseRecursion = factory.collapseRecursion();
+        this.flightRecorder = factory.flightRecorder();
+        this.stack = new LocData[Math.min(maxDepth, INITIAL_CAPACITY) + 1];
+        this.stack[0] = tree.sentinel();
+        this.depth = 0;
+        this.childNanos = new long[stack.length];
+        this.reentrantStarts = new long[stack.length];
+        Arrays.fill(reentrantStarts, NOT_REENTRANT);
+        this.active = new LocData[collapseRecursion ? INITIAL_CAPACITY : 0];
+        this.indexedLocations = new Location[collapseRecursion ? INITIAL_CAPACITY * 2 : 0];
+        this.indexes = new int[indexedLocations.length];
+        this.scopes = new Scope[stack.length];
+        this.events = new ScopeEvent[flightRecorder ? stack.length : 0];
+    }
+
+    @NotNull
+    CallTree tree() {
+        return tree;
+    }
+
+    /**
+     * Sets whether pushes are recorded. Visits already in progress are still recorded when popped.
+     */
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Pushes the given location, or ignores it while recording is {@linkplain #setEnabled(boolean) disabled}.
+     *
+     * @throws IllegalStateException if pushing would exceed the maximum depth.
+     */
+    void push(@NotNull Location location) {
+        if (ignored > 0 || !enabled) {
+            ignored++;
+            return;
+        }
+        enter(location);
+    }
+
+    /**
+     * Pushes the given location, even while recording is disabled.
+     *
+     * @throws IllegalStateException if pushing would exceed the maximum depth.
+     */
+    void enter(@NotNull Location location) {
+        if (collapseRecursion) {
+            final LocData reentered = active(location);
+            if (reentered != null) {
+                grow();
+                stack[depth] = reentered;
+                reentrantStarts[depth] = clock.nanoTime();
+                if (flightRecorder) {
+                    beginEvent();
+                }
+                return;
+            }
+        }
+        final LocData parent = stack[depth];
+        if (parent.depth() >= maxDepth) {
+            throw new IllegalStateException("Maximum path depth of %s exceeded".formatted(maxDepth));
+        }
+        final LocData data = tree.child(parent, location);
+        grow();
+        stack[depth] = data;
+        if (collapseRecursion) {
+            active[index(location)] = data;
+        }
+        data.push();
+        if (flightRecorder) {
+            beginEvent();
+        }
+    }
+
+    /**
+     * Increments the depth, growing the arrays indexed by depth as needed.
+     */
+    private void grow() {
+        if (++depth == stack.length) {
+            // collapsed recursion can nest deeper than the path depth
+            final int length = collapseRecursion ? stack.length * 2 : Math.min(stack.length * 2, maxDepth + 1);
+            stack = Arrays.copyOf(stack, length);
+            childNanos = Arrays.copyOf(childNanos, length);
+            final int from = reentrantStarts.length;
+            reentrantStarts = Arrays.copyOf(reentrantStarts, length);
+            Arrays.fill(reentrantStarts, from, length, NOT_REENTRANT);
+            if (flightRecorder) {
+                events = Arrays.copyOf(events, length);
+            }
+        }
+    }
+
+    /**
+     * @return the active node of the given {@code location}, or {@code null} if it is not on the stack.
+     */
+    @Nullable
+    private LocData active(@NotNull Location location) {
+        return active[index(location)];
+    }
+
+    /**
+     * @return the index of the given {@code location} in {@link #active}, assigning the next one if it has none.
+     */
+    private int index(@NotNull Location location) {
+        final int mask = indexedLocations.length - 1;
+        int i = LocData.slot(location, mask);
+        for (Location key; (key = indexedLocations[i]) != null; i = (i + 1) & mask) {
+            if (key == location) {
+                return indexes[i];
+            }
+        }
+        final int index = indexed++;
+        indexedLocations[i] = location;
+        indexes[i] = index;
+        if (indexed == active.length) {
+            active = Arrays.copyOf(active, active.length * 2);
+        }
+        if (indexed * 2 > indexedLocations.length) {
+            rehashIndexes(indexedLocations.length * 2);
+        }
+        return index;
+    }
+
+    private void rehashIndexes(int capacity) {
+        final Location[] locations = new Location[capacity];
+        final int[] values = new int[capacity];
+        final int mask = capacity - 1;
+        for (int j = 0; j < indexedLocations.length; j++) {
+            final Location location = indexedLocations[j];
+            if (location != null) {
+                int i = LocData.slot(location, mask);
+                while (locations[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                locations[i] = location;
+                values[i] = indexes[j];
+            }
+        }
+        indexedLocations = locations;
+        indexes = values;
+    }
+
+    /**
+     * @throws IllegalStateException if the stack is empty.
+     */
+    @NotNull
+    LocData pop() {
+        return pop(false);
+    }
+
+    /**
+     * @param exceptional whether the popped visit ended with an exception.
+     * @return the popped node, or the tree's sentinel if the push was ignored.
+     * @throws IllegalStateException if the stack is empty.
+     */
+    @NotNull
+    LocData pop(boolean exceptional) {
+        if (ignored > 0) {
+            ignored--;
+            return tree.sentinel();
+        }
+        if (depth == 0) {
+            throw new IllegalStateException("Profiler already popped. Mismatched push/pop?");
+        }
+        final LocData current = stack[depth];
+        final long children = childNanos[depth];
+        final long start = reentrantStarts[depth];
+        long elapsed;
+        if (start != NOT_REENTRANT) {
+            elapsed = clock.nanoTime() - start;
+            reentrantStarts[depth] = NOT_REENTRANT;
+            current.reenter(elapsed, children, exceptional);
+        } else {
+            elapsed = current.pop(exceptional, children);
+            if (elapsed < 0L) {
+                // untimed visit; its parent's self time is charged the estimate instead
+                elapsed = current.lastNanos();
+            }
+            if (collapseRecursion) {
+                active[index(Objects.requireNonNull(current.location()))] = null;
+            }
+        }
+        if (flightRecorder) {
+            endEvent(current, exceptional);
+        }
+        childNanos[depth] = 0L;
+        stack[depth--] = null;
+        childNanos[depth] += elapsed;
+        return current;
+    }
+
+    /**
+     * Begins the Flight Recorder event of the visit just pushed, if a recording enables it.
+     */
+    private void beginEvent() {
+        if (EventProbe.SCOPE.isEnabled()) {
+            final ScopeEvent event = new ScopeEvent();
+            event.begin();
+            events[depth] = event;
+        }
+    }
+
+    /**
+     * Ends the Flight Recorder event of the visit being popped, committing it if it exceeded the threshold.
+     */
+    private void endEvent(@NotNull LocData current, boolean exceptional) {
+        final ScopeEvent event = events[depth];
+        if (event != null) {
+            events[depth] = null;
+            event.end();
+            if (event.shouldCommit()) {
+                event.location = String.valueOf(current.location());
+                event.path = current.path();
+                event.depth = current.depth();
+                event.exceptional = exceptional;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Pushes the given location and returns the reusable scope of the new depth.
+     *
+     * @throws IllegalStateException if pushing would exceed the maximum depth.
+     */
+    @NotNull
+    Scope scope(@NotNull Location location) {
+        push(location);
+        if (ignored > 0) {
+            if (ignoredScopes.length <= ignored) {
+                ignoredScopes = Arrays.copyOf(ignoredScopes, Math.max(ignored + 1, ignoredScopes.length * 2));
+            }
+            Scope scope = ignoredScopes[ignored];
+            if (scope == null) {
+                // ignored scopes have negative depths
+                scope = ignoredScopes[ignored] = new Scope(this, -ignored);
+            }
+            scope.open();
+            return scope;
+        }
+        if (scopes.length <= depth) {
+            scopes = Arrays.copyOf(scopes, stack.length);
+        }
+        Scope scope = scopes[depth];
+        if (scope == null) {
+            scope = scopes[depth] = new Scope(this, depth);
+        }
+        scope.open();
+        return scope;
+    }
+
+    /**
+     * Pops every location down to and including {@code target}'s depth. Locations left open above it were
+     * skipped by an exception, so they are popped as exceptional. A negative {@code target} closes the ignored
+     * push at {@code -target}.
+     *
+     * @throws IllegalStateException if {@code target}'s location was already popped.
+     */
+    void close(int target, boolean exceptional) {
+        if (target < 0) {
+            if (ignored < -target) {
+                throw new IllegalStateException("Scope already popped. Mismatched push/pop?");
+            }
+            ignored = -target - 1;
+            return;
+        }
+        if (depth < target) {
+            throw new IllegalStateException("Scope at depth %s already popped. Mismatched push/pop?".formatted(target));
+        }
+        // locations left open inside the scope mean that its body was cut short by an exception
+        final boolean unwound = ignored > 0 || depth > target;
+        // ignored pushes can only be nested in the target
+        ignored = 0;
+        while (depth > target) {
+            pop(true);
+        }
+        pop(exceptional || unwound);
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    @Nullable
+    LocData current() {
+        return (depth == 0) ? null : stack[depth];
+    }
+
+    @NotNull
+    String fullPath() {
+        return (depth == 0) ? "" : stack[depth].path();
+    }
+
+    /**
+     * Copies the tree, recording every visit in progress as if it ended now.
+     *
+     * @return an independent copy of the tree.
+     */
+    @NotNull
+    CallTree snapshot() {
+        final Set<LocData> open = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 1; i <= depth; i++) {
+            open.add(stack[i]);
+        }
+        final CallTree copy = tree.copy(open);
+        long carried = 0L;
+        for (int i = depth; i > 0; i--) {
+            final LocData current = stack[i];
+            final LocData copied = Objects.requireNonNull(copy.counterpart(current));
+            final long children = childNanos[i] + carried;
+            if (reentrantStarts[i] != NOT_REENTRANT) {
+                carried = clock.nanoTime() - reentrantStarts[i];
+                copied.reenter(carried, children, false);
+            } else {
+                carried = current.openNanos();
+                copied.recordOpen(carried, children);
+                if (carried < 0L) {
+                    carried = current.lastNanos();
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Discards every statistic, keeping the nodes and the stack, so that visits in progress only record
+     * the time after now.
+     */
+    void resetStats() {
+        tree.resetStats();
+        Arrays.fill(childNanos, 0L);
+        for (int i = 1; i <= depth; i++) {
+            if (reentrantStarts[i] != NOT_REENTRANT) {
+                reentrantStarts[i] = clock.nanoTime();
+            } else {
+                stack[i].restart();
+            }
+        }
+    }
+
+    /**
+     * Discards every node and empties the stack.
+     */
+    void reset() {
+        tree.clear();
+        Arrays.fill(stack, 1, stack.length, null);
+        Arrays.fill(childNanos, 0L);
+        Arrays.fill(reentrantStarts, NOT_REENTRANT);
+        Arrays.fill(active, null);
+        Arrays.fill(indexedLocations, null);
+        indexed = 0;
+        Arrays.fill(events, null);
+        depth = 0;
+        ignored = 0;
+        for (Scope scope : scopes) {
+            if (scope != null) {
+                scope.discard();
+            }
+        }
+        for (Scope scope : ignoredScopes) {
+            if (scope != null) {
+                scope.discard();
+            }
+        }
+    }
+
+    /**
+     * Holds the instance whose {@link ScopeEvent#isEnabled()} is checked before creating an event, so that
+     * nothing is allocated while no recording enables the event. Loaded only when emitting events.
+     */
+    private static final class EventProbe {
+
+        static final ScopeEvent SCOPE = new ScopeEvent();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A tree of {@link LocData} nodes hanging off an invisible sentinel.
+ * <p>
+ * Top-level locations (usually just {@code root}) are children of the sentinel, which has depth {@code 0}.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+final class CallTree {
+
+    static final Location ROOT = Location.of("root");
+
+    private final @NotNull LocDataFactory factory;
+    private final @NotNull LocData sentinel;
+    private final @NotNull Set<Map.Entry<String, LocData>> entries;
+    private int size;
+    private int unpushedDepth;
+
+    CallTree(@NotNull LocDataFactory factory) {
+        this.factory = factory;
+        this.sentinel = factory.create(null, null);
+        this.entries = new EntrySet();
+        this.size = 0;
+    }
+
+    @NotNull
+    LocData sentinel() {
+        return sentinel;
+    }
+
+    /**
+     * @return the child of {@code parent} for the given {@code location}, creating it if absent.
+     */
+    @NotNull
+    LocData child(@NotNull LocData parent, @NotNull Location location) {
+        LocData child = parent.child(location);
+        if (child == null) {
+            child = factory.create((parent == sentinel) ? null : parent, location);
+            parent.addChild(child);
+            size++;
+        }
+        return child;
+    }
+
+    /**
+     * @return the top-level node for the given {@code location}, or {@code null} if it was never pushed.
+     */
+    @Nullable
+    LocData top(@NotNull Location location) {
+        return sentinel.child(location);
+    }
+
+    /**
+     * Merges the statistics of every descendant of {@code source} into the matching descendants of {@code target},
+     * creating nodes in this tree as needed.
+     * <p>
+     * {@code source} may belong to a tree that another thread is recording into. Each of its nodes is then read
+     * consistently, but at a slightly different moment than its parent, so a parent may not account for every
+     * visit of its children.
+     */
+    void merge(@NotNull LocData target, @NotNull LocData source) {
+        // the sentinel holds the counters read from each source node, and has no histogram of its own
+        merge(target, source, factory.create(null, null));
+    }
+
+    private void merge(@NotNull LocData target, @NotNull LocData source, @NotNull LocData scratch) {
+        for (LocData child = source.firstChild(); child != null; child = child.nextSibling()) {
+            final LocData merged = child(target, Objects.requireNonNull(child.location()));
+            scratch.readStats(child);
+            merged.merge(scratch);
+            final Histogram histogram = merged.histogram();
+            final Histogram recorded = child.histogram();
+            if (histogram != null && recorded != null) {
+                histogram.add(recorded);
+            }
+            merge(merged, child, scratch);
+        }
+    }
+
+    /**
+     * Marks the nodes up to the given depth as not pushed by a profiler, but recorded on their own, e.g. the
+     * {@code root} of merged threads, which records wall-clock time. They are never charged any overhead.
+     */
+    void setUnpushedDepth(int depth) {
+        this.unpushedDepth = depth;
+    }
+
+    /**
+     * Sets the {@linkplain LocData#overheadNanos() overhead} of every node according to the given calibration.
+     * Each node is charged for its own visits plus every push/pop pair beneath it. Nodes that were
+     * {@linkplain #setUnpushedDepth(int) not pushed} are not charged: {@code root} keeps its time, and any other
+     * such node, which records the total of its children, carries just what was subtracted from them.
+     */
+    void compensate(@NotNull Calibration calibration) {
+        for (LocData top = sentinel.firstChild(); top != null; top = top.nextSibling()) {
+            compensate(top, calibration, unpushedDepth);
+        }
+    }
+
+    /**
+     * @return the number of push/pop pairs beneath {@code node}.
+     */
+    private static long compensate(@NotNull LocData node, @NotNull Calibration calibration, int unpushedDepth) {
+        long pairs = 0L;
+        long childVisits = 0L;
+        long childOverhead = 0L;
+        for (LocData child = node.firstChild(); child != null; child = child.nextSibling()) {
+            childVisits += child.visits();
+            pairs += child.visits() + compensate(child, calibration, unpushedDepth);
+            childOverhead += child.overheadNanos();
+        }
+        if (node.depth() <= unpushedDepth) {
+            node.setOverheadNanos((node.depth() == 1) ? 0L : childOverhead, 0L);
+            return pairs;
+        }
+        // a child's own measured time is excluded from self time, so only the rest of each pair remains
+        final long selfPairNanos = Math.max(0L, calibration.pairNanos() - calibration.emptyScopeNanos());
+        final long empty = node.visits() * calibration.emptyScopeNanos();
+        node.setOverheadNanos(empty + pairs * calibration.pairNanos(), empty + childVisits * selfPairNanos);
+        return pairs;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copies every node that has been visited, is in {@code open}, or has such a descendant, so that unvisited
+     * nodes left behind by {@link #resetStats()} are omitted.
+     *
+     * @param open the nodes with a visit in progress.
+     * @return an independent copy of this tree.
+     */
+    @NotNull
+    CallTree copy(@NotNull Set<LocData> open) {
+        final CallTree copy = new CallTree(factory);
+        copy.unpushedDepth = unpushedDepth;
+        copy.copy(copy.sentinel, sentinel, open);
+        return copy;
+    }
+
+    private void copy(@NotNull LocData target, @NotNull LocData source, @NotNull Set<LocData> open) {
+        for (LocData child = source.firstChild(); child != null; child = child.nextSibling()) {
+            // copy the descendants first, and only link the node if it or one of them survived
+            final LocData copied = factory.create((target == sentinel) ? null : target, child.location());
+            copy(copied, child, open);
+            if (copied.firstChild() != null || isLive(child, open)) {
+                copied.merge(child);
+                target.addChild(copied);
+                size++;
+            }
+        }
+    }
+
+    private static boolean isLive(@NotNull LocData node, @NotNull Set<LocData> open) {
+        return node.visits() != 0L || node.recursiveVisits() != 0L || open.contains(node);
+    }
+
+    /**
+     * @return the node of this tree with the same path as {@code node} of another tree, or {@code null} if absent.
+     */
+    @Nullable
+    LocData counterpart(@NotNull LocData node) {
+        final LocData parent = (node.parent() == null) ? sentinel : counterpart(node.parent());
+        return (parent == null) ? null : parent.child(Objects.requireNonNull(node.location()));
+    }
+
+    /**
+     * Removes the statistics of {@code baseline}, an earlier copy of this tree, from the matching nodes.
+     */
+    void subtract(@NotNull CallTree baseline) {
+        subtract(sentinel, baseline.sentinel);
+    }
+
+    private static void subtract(@NotNull LocData target, @Nullable LocData baseline) {
+        for (LocData child = target.firstChild(); child != null; child = child.nextSibling()) {
+            final LocData base = (baseline == null) ? null : baseline.child(Objects.requireNonNull(child.location()));
+            if (base != null) {
+                child.subtract(base);
+            }
+            subtract(child, base);
+        }
+    }
+
+    /**
+     * Discards the statistics of every node, keeping the nodes themselves.
+     */
+    void resetStats() {
+        for (LocData node = sentinel.firstChild(); node != null; node = next(node)) {
+            node.resetStats();
+        }
+    }
+
+    void clear() {
+        sentinel.clearChildren();
+        size = 0;
+    }
+
+    /**
+     * @return a live, unmodifiable view of every node in depth-first order, keyed by full path.
+     */
+    @NotNull
+    Set<Map.Entry<String, LocData>> entries() {
+        return entries;
+    }
+
+    /**
+     * @return the node following {@code node} in depth-first order, or {@code null} at the end of the tree.
+     */
+    @Nullable
+    static LocData next(@NotNull LocData node) {
+        final LocData child = node.firstChild();
+        if (child != null) {
+            return child;
+        }
+        for (LocData current = node; current != null; current = current.parent()) {
+            final LocData sibling = current.nextSibling();
+            if (sibling != null) {
+                return sibling;
+            }
+        }
+        return null;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, LocData>> {
+
+        @Override
+        public @NotNull Iterator<Map.Entry<String, LocData>> iterator() {
+            return new Iterator<>() {
+                private LocData next = sentinel.firstChild();
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Map.Entry<String, LocData> next() {
+                    final LocData current = next;
+                    if (current == null) {
+                        throw new NoSuchElementException();
+                    }
+                    next = CallTree.next(current);
+                    return new Entry(current);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * An entry whose key is only built when requested.
+     */
+    private record Entry(@NotNull LocData data) implements Map.Entry<String, LocData> {
+
+        @Override
+        public String getKey() {
+            return data.path();
+        }
+
+        @Override
+        public LocData getValue() {
+            return data;
+        }
+
+        @Override
+        public LocData setValue(LocData value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof Map.Entry<?, ?> e) && getKey().equals(e.getKey()) && data.equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ data.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + data;
+        }
+    }
+}
\ No newline at end of file
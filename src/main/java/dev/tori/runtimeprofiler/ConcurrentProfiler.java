@@ -0,0 +1,570 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import dev.tori.runtimeprofiler.config.Config;
+import dev.tori.runtimeprofiler.util.Stopwatch;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A thread-safe implementation of {@link IProfiler}.
+ * <p>
+ * Every thread records into its own call tree, so {@link #push(Location)} and {@link #pop()} never lock or
+ * contend with other threads. The per-thread trees are merged into a single view, rooted at {@code root},
+ * when {@link #getEntries()} or {@link #stop()} is called.
+ * <p>
+ * Each thread must balance its own pushes and pops. Scopes that are still open on other threads when the
+ * profiler is stopped are not included, and merging while threads are recording yields approximate results:
+ * the statistics of each location are consistent, but locations are read at slightly different moments, so a
+ * parent may not account for every visit of its children. For exact results, make sure recording threads have
+ * finished (e.g. joined) before calling {@link #stop()}.
+ * <p>
+ * The recordings of threads that have terminated are folded into a single tree, so a thread pool that replaces
+ * its threads does not grow the profiler.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public class ConcurrentProfiler implements IProfiler {
+
+    private final String label;
+    private final LocDataFactory factory;
+    private final int maxDepth;
+    private final boolean perThread;
+
+    private volatile Session session;
+    private volatile CallTree merged;
+    private volatile boolean compensated;
+    private volatile boolean enabled = true;
+
+    /**
+     * Constructs a new profiler with the given {@code label} and the
+     * {@linkplain Config#defaultTimeUnit() default time unit}.
+     *
+     * @param label The label for this profiler
+     */
+    public ConcurrentProfiler(String label) {
+        this(label, Config.defaultTimeUnit());
+    }
+
+    /**
+     * Constructs a new profiler with the given {@code label} and {@linkplain TimeUnit time unit}.
+     *
+     * @param label     The label for this profiler
+     * @param precision The timing {@linkplain TimeUnit precision} for this profiler
+     */
+    public ConcurrentProfiler(String label, TimeUnit precision) {
+        this(label, precision, Config.defaultMaxDepth(), false);
+    }
+
+    /**
+     * Constructs a new profiler with the given {@code label} and {@linkplain TimeUnit time unit}.
+     *
+     * @param label     The label for this profiler.
+     * @param precision The timing {@linkplain TimeUnit precision} for this profiler.
+     * @param maxDepth  The maximum path depth of each thread; must be greater than {@code 0}.
+     * @param perThread Whether the merged view should break down each thread under its own
+     *                  {@code root/<thread name>} node instead of combining all threads.
+     */
+    public ConcurrentProfiler(@NotNull String label, @NotNull TimeUnit precision, int maxDepth, boolean perThread) {
+        this(label, new LocDataFactory(precision), maxDepth, perThread);
+    }
+
+    /**
+     * Constructs a new profiler with the given {@code label} whose {@link LocData} are created by {@code factory}.
+     *
+     * @param label     The label for this profiler.
+     * @param factory   The factory, which determines the timing precision and which statistics are recorded.
+     * @param maxDepth  The maximum path depth of each thread; must be greater than {@code 0}.
+     * @param perThread Whether the merged view should break down each thread under its own
+     *                  {@code root/<thread name>} node instead of combining all threads.
+     */
+    public ConcurrentProfiler(@NotNull String label, @NotNull LocDataFactory factory, int maxDepth, boolean perThread) {
+        if (maxDepth <= 0) {
+            throw new IllegalArgumentException("maxDepth must be greater than zero");
+        }
+        this.label = label;
+        this.factory = factory;
+        this.maxDepth = maxDepth;
+        this.perThread = perThread;
+        this.session = null;
+        this.merged = null;
+        this.compensated = false;
+    }
+
+    /**
+     * Resets and starts this profiler.
+     *
+     * @throws IllegalStateException if this profiler is already started.
+     */
+    @Override
+    public synchronized void start() {
+        if (session != null) {
+            throw new IllegalStateException("Profiler already started");
+        }
+        merged = null;
+        session = new Session();
+    }
+
+    /**
+     * Stops this profiler and merges every thread's recordings.
+     *
+     * @return the merged root {@link LocData}.
+     * @throws IllegalStateException if this profiler is not started OR the calling thread is not fully popped.
+     */
+    @Override
+    public synchronized LocData stop() {
+        final Session current = checkStarted();
+        final long elapsed = current.stopwatch.peekNanos();
+        session = null;
+        merged = current.merge(elapsed);
+        compensate();
+        final Recorder recorder = current.existingRecorder();
+        if (recorder != null && recorder.stack.depth() != 0) {
+            throw new IllegalStateException("Profiler tick ended before path was fully popped (remainder %s). Mismatched push/pop?".formatted(recorder.stack.fullPath()));
+        }
+        return merged.top(CallTree.ROOT);
+    }
+
+    /**
+     * Pushes the given location to the calling thread's stack.
+     *
+     * @param location the location to push to.
+     * @throws IllegalStateException    if this profiler is not started.
+     * @throws IllegalArgumentException if the given {@code location} contains the
+     *                                  {@linkplain Config#pathSeparator() path separator}.
+     */
+    @Override
+    public void push(@NotNull String location) {
+        push(location(location));
+    }
+
+    /**
+     * Pushes the given pre-registered location to the calling thread's stack.
+     *
+     * @param location the location to push to.
+     * @throws IllegalStateException if this profiler is not started.
+     */
+    @Override
+    public void push(@NotNull Location location) {
+        checkStarted().recorder().stack.push(location);
+    }
+
+    /**
+     * Pushes the given location to the calling thread's stack and returns a {@link Scope} that pops it when closed.
+     * The returned scope is confined to the calling thread.
+     *
+     * @param location the location to push to.
+     * @return the calling thread's reusable scope of the new depth.
+     * @throws IllegalStateException if this profiler is not started.
+     */
+    @NotNull
+    @Override
+    public Scope scope(@NotNull Location location) {
+        return checkStarted().recorder().stack.scope(location);
+    }
+
+    /**
+     * Pops the current location from the calling thread's stack.
+     *
+     * @return the popped, thread-local {@link LocData}, or an empty node if its push was ignored while
+     * {@linkplain #isEnabled() disabled}.
+     * @throws IllegalStateException if this profiler is not started OR the calling thread's stack is empty.
+     */
+    @Override
+    public LocData pop() {
+        return checkStarted().recorder().stack.pop();
+    }
+
+    /**
+     * Swaps the top of the calling thread's stack or simply pushes if the stack is empty.
+     *
+     * @param location the location to push to.
+     * @return the popped {@link LocData} if the calling thread's stack was not empty, otherwise {@code null}.
+     * @throws IllegalStateException    if this profiler is not started.
+     * @throws IllegalArgumentException if the given {@code location} contains the
+     *                                  {@linkplain Config#pathSeparator() path separator}.
+     */
+    @Override
+    public LocData swapIf(@NotNull String location) {
+        if (checkStarted().recorder().stack.depth() == 0) {
+            push(location);
+            return null;
+        }
+        return swap(location);
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public TimeUnit getTimingPrecision() {
+        return factory.timeUnit();
+    }
+
+    /**
+     * While running, every call merges the threads' current recordings into a new view, which is only
+     * {@linkplain #setOverheadCompensation(boolean) compensated} once the calibration was measured elsewhere, e.g. by
+     * a {@link #snapshot()} being read, so that the caller is never delayed by calibrating.
+     *
+     * @return an unmodifiable view of every merged {@link LocData} in depth-first order, keyed by full path.
+     */
+    @Override
+    public Set<Map.Entry<String, LocData>> getEntries() {
+        final Session current = session;
+        if (current != null) {
+            final CallTree tree = current.merge(current.stopwatch.peekNanos());
+            final Calibration calibration = compensated ? Calibration.cached(factory) : null;
+            if (calibration != null) {
+                tree.compensate(calibration);
+            }
+            return tree.entries();
+        }
+        final CallTree tree = merged;
+        return (tree == null) ? Collections.emptySet() : tree.entries();
+    }
+
+    /**
+     * Merges the threads' current recordings into an immutable copy. Unlike {@link Profiler#snapshot()}, visits
+     * in progress are not included, since they belong to other threads.
+     *
+     * @return a new {@link Snapshot}.
+     * @since 2.1.0
+     */
+    @NotNull
+    @Override
+    public Snapshot snapshot() {
+        final Session current = session;
+        final CallTree tree;
+        if (current != null) {
+            tree = current.merge(current.stopwatch.peekNanos());
+        } else {
+            final CallTree finished = merged;
+            tree = (finished == null) ? new CallTree(factory) : finished.copy(Collections.emptySet());
+        }
+        return new Snapshot(label, getTimingPrecision(), tree, factory, compensated);
+    }
+
+    /**
+     * Captures a {@linkplain #snapshot() snapshot} and makes it the baseline of the next one, so that the next
+     * snapshot, or the results of {@link #stop()}, only cover the time after this one.
+     * <p>
+     * The threads' recordings are never modified; each snapshot is the difference from the previous baseline.
+     * Min and max are derived from latency histograms if {@linkplain LocDataFactory#histograms() enabled},
+     * and otherwise still cover everything recorded since {@link #start()}.
+     *
+     * @return a new {@link Snapshot}.
+     * @throws IllegalStateException if this profiler is not started.
+     * @since 2.1.0
+     */
+    @NotNull
+    @Override
+    public synchronized Snapshot snapshotAndReset() {
+        final Session current = checkStarted();
+        final long elapsed = current.stopwatch.peekNanos();
+        final CallTree cumulative = current.mergeCumulative();
+        final CallTree tree = current.since(cumulative, elapsed);
+        current.baselineNanos = elapsed;
+        current.baseline = cumulative;
+        return new Snapshot(label, getTimingPrecision(), tree, factory, compensated);
+    }
+
+    /**
+     * @return the wall-clock runtime between {@link #start()} and {@link #stop()}.
+     * @throws IllegalStateException if the profiler is running or was never started.
+     */
+    @Override
+    public long getTotalRuntime() {
+        return getTotalRuntime(getTimingPrecision());
+    }
+
+    /**
+     * @return the wall-clock runtime between {@link #start()} and {@link #stop()}, in the given {@code unit}.
+     * @throws IllegalStateException if the profiler is running or was never started.
+     */
+    @Override
+    public long getTotalRuntime(@NotNull TimeUnit unit) {
+        if (session != null) {
+            throw new IllegalStateException("Profiler is still running");
+        }
+        final CallTree tree = merged;
+        if (tree == null) {
+            throw new IllegalStateException("Profiler was never started");
+        }
+        return tree.top(CallTree.ROOT).total(unit);
+    }
+
+    /**
+     * Returns the measured overhead of this profiler. It is only measured by {@link #calibrate()}, or on first use
+     * once {@linkplain #setOverheadCompensation(boolean) compensation} is enabled, since measuring takes a few tens
+     * of milliseconds on the calling thread.
+     *
+     * @return the calibration, or {@code null} if it was not measured yet.
+     * @see Calibration#of(LocDataFactory)
+     * @since 2.1.0
+     */
+    @Nullable
+    @Override
+    public Calibration getCalibration() {
+        return compensated ? Calibration.of(factory) : Calibration.cached(factory);
+    }
+
+    /**
+     * Measures the overhead of this profiler, or re-measures it, e.g. once the JIT has warmed up.
+     *
+     * @return the new {@link Calibration}.
+     * @since 2.1.0
+     */
+    @NotNull
+    public synchronized Calibration calibrate() {
+        final Calibration calibration = Calibration.measure(factory);
+        if (compensated) {
+            compensate();
+        }
+        return calibration;
+    }
+
+    /**
+     * Sets whether the {@linkplain #getCalibration() measured overhead} is subtracted from each node's time.
+     * <p>
+     * Compensation is applied when the profiler is stopped; toggling it on a stopped profiler updates the
+     * existing results.
+     *
+     * @param compensated {@code true} to subtract the estimated overhead.
+     * @see LocData#overheadNanos()
+     * @since 2.1.0
+     */
+    public synchronized void setOverheadCompensation(boolean compensated) {
+        final boolean cleared = this.compensated && !compensated;
+        this.compensated = compensated;
+        final CallTree tree = merged;
+        if (cleared && tree != null) {
+            tree.compensate(Calibration.NONE);
+        }
+        compensate();
+    }
+
+    /**
+     * @return {@code true} if the estimated overhead is subtracted from each node's time.
+     * @since 2.1.0
+     */
+    @Override
+    public boolean isOverheadCompensated() {
+        return compensated;
+    }
+
+    /**
+     * Sets whether pushes are recorded, on every thread. While disabled, pushes and their pops are ignored, so each
+     * costs a single check; visits already in progress are still recorded.
+     *
+     * @param enabled {@code false} to stop recording new visits.
+     * @since 2.1.0
+     */
+    @Override
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        final Session current = session;
+        if (current != null) {
+            for (Recorder recorder : current.recorders) {
+                recorder.stack.setEnabled(enabled);
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if pushes are recorded.
+     * @since 2.1.0
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Applies the overhead compensation of the merged results, if enabled.
+     */
+    private void compensate() {
+        final CallTree tree = merged;
+        if (tree != null && compensated) {
+            tree.compensate(Calibration.of(factory));
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if this profiler is not started.
+     */
+    @ApiStatus.Internal
+    @NotNull
+    private Session checkStarted() {
+        final Session current = session;
+        if (current == null) {
+            throw new IllegalStateException("Profiler not started");
+        }
+        return current;
+    }
+
+    /**
+     * The recordings of a single start/stop cycle.
+     */
+    private final class Session {
+
+        private final Stopwatch stopwatch = new Stopwatch(factory.clock());
+        private final Queue<Recorder> recorders = new ConcurrentLinkedQueue<>();
+        private final ThreadLocal<Recorder> local = new ThreadLocal<>();
+
+        /**
+         * The recordings of terminated threads, guarded by this session.
+         */
+        private final CallTree retired = new CallTree(factory);
+
+        /**
+         * @return the calling thread's recorder, creating it on first use.
+         */
+        @NotNull
+        Recorder recorder() {
+            Recorder recorder = local.get();
+            if (recorder == null) {
+                recorder = Recorder.of(Thread.currentThread(), new CallStack(factory, maxDepth));
+                local.set(recorder);
+                recorders.add(recorder);
+                // after being added, so that a concurrent setEnabled either sees the recorder or is seen by it
+                recorder.stack.setEnabled(enabled);
+            }
+            return recorder;
+        }
+
+        /**
+         * @return the calling thread's recorder, or {@code null} if it never recorded.
+         */
+        @Nullable
+        Recorder existingRecorder() {
+            return local.get();
+        }
+
+        /**
+         * The cumulative recordings and elapsed time at the last {@link #snapshotAndReset()}, or {@code null} if none.
+         */
+        private volatile CallTree baseline;
+        private volatile long baselineNanos;
+
+        /**
+         * @return the recordings since the last {@link #snapshotAndReset()}.
+         */
+        @NotNull
+        CallTree merge(long elapsedNanos) {
+            return since(mergeCumulative(), elapsedNanos);
+        }
+
+        /**
+         * Subtracts the {@link #baseline} from {@code cumulative}, which is left unmodified, and records the nodes
+         * that are not pushed by any thread: {@code root} records the elapsed wall-clock time, and each thread's
+         * node the total of its top-level locations.
+         *
+         * @return the recordings since the baseline.
+         */
+        @NotNull
+        CallTree since(@NotNull CallTree cumulative, long elapsedNanos) {
+            final CallTree base = baseline;
+            CallTree tree = cumulative.copy(Collections.emptySet());
+            if (base != null) {
+                tree.subtract(base);
+                // drop the nodes without visits since the baseline
+                tree = tree.copy(Collections.emptySet());
+            }
+            tree.setUnpushedDepth(perThread ? 2 : 1);
+            final LocData root = tree.child(tree.sentinel(), CallTree.ROOT);
+            root.record(elapsedNanos - ((base == null) ? 0L : baselineNanos));
+            if (perThread) {
+                for (LocData thread = root.firstChild(); thread != null; thread = thread.nextSibling()) {
+                    long total = 0L;
+                    for (LocData top = thread.firstChild(); top != null; top = top.nextSibling()) {
+                        total += top.totalNanos();
+                    }
+                    thread.record(total);
+                }
+            }
+            return tree;
+        }
+
+        /**
+         * @return every recording since {@link #start()}, with {@code root} and the thread nodes left unrecorded.
+         */
+        @NotNull
+        synchronized CallTree mergeCumulative() {
+            retire();
+            final CallTree tree = new CallTree(factory);
+            tree.merge(tree.sentinel(), retired.sentinel());
+            final LocData root = tree.child(tree.sentinel(), CallTree.ROOT);
+            for (Recorder recorder : recorders) {
+                mergeInto(tree, root, recorder);
+            }
+            return tree;
+        }
+
+        /**
+         * Folds the recorders of terminated threads into {@link #retired}. A thread's termination happens-before
+         * it is seen as not alive, so its recordings are complete.
+         */
+        private void retire() {
+            final LocData root = retired.child(retired.sentinel(), CallTree.ROOT);
+            for (Iterator<Recorder> iterator = recorders.iterator(); iterator.hasNext(); ) {
+                final Recorder recorder = iterator.next();
+                if (!recorder.thread().isAlive()) {
+                    mergeInto(retired, root, recorder);
+                    iterator.remove();
+                }
+            }
+        }
+
+        private void mergeInto(@NotNull CallTree tree, @NotNull LocData root, @NotNull Recorder recorder) {
+            final LocData target = perThread ? tree.child(root, recorder.location()) : root;
+            tree.merge(target, recorder.stack.tree().sentinel());
+        }
+    }
+
+    /**
+     * A single thread's recordings.
+     *
+     * @param location the key of the thread's node, which is not interned, so that threads seen over the lifetime of
+     *                 the JVM don't accumulate in the global intern table.
+     */
+    private record Recorder(@NotNull Thread thread, @NotNull CallStack stack, @NotNull Location location) {
+
+        @NotNull
+        static Recorder of(@NotNull Thread thread, @NotNull CallStack stack) {
+            final String name = thread.getName().replace(Config.pathSeparator(), "_");
+            return new Recorder(thread, stack, Location.unique(name + "#" + thread.getId()));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import dev.tori.runtimeprofiler.util.UnitUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A read-only profiler loaded from a file written by {@link dev.tori.runtimeprofiler.write.OutputWriter#CSV}, e.g.
+ * to {@linkplain dev.tori.runtimeprofiler.diff.ProfileDiff compare} against a baseline that was only saved as CSV.
+ * <p>
+ * Only the visits, total, average, minimum, maximum and self time of each location are stored in CSV, so exceptional
+ * and recursive visits are read as {@code 0}, and percentiles are unavailable. Times are read in the unit they were
+ * written in, and the total runtime is that of the top-level locations.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @see BinaryProfile
+ * @since 2.1.0
+ */
+public final class CsvProfile implements IProfiler {
+
+    private final @NotNull String label;
+    private final @NotNull TimeUnit precision;
+    private final long totalRuntimeNanos;
+    private final @NotNull Set<Map.Entry<String, LocData>> entries;
+
+    private CsvProfile(@NotNull String label, @NotNull TimeUnit precision, long totalRuntimeNanos,
+                       @NotNull Map<String, LocData> entries) {
+        this.label = label;
+        this.precision = precision;
+        this.totalRuntimeNanos = totalRuntimeNanos;
+        this.entries = Collections.unmodifiableMap(entries).entrySet();
+    }
+
+    /**
+     * Reads the given file.
+     *
+     * @param file a file written by {@link dev.tori.runtimeprofiler.write.OutputWriter#CSV}.
+     * @return a read-only profile labeled with the file's name, without its extension.
+     * @throws IOException if the file can't be read or is not a CSV profile.
+     */
+    @NotNull
+    public static CsvProfile read(@NotNull Path file) throws IOException {
+        try (CSVReader reader = new CSVReader(new FileReader(file.toFile()))) {
+            final String[] headers = reader.readNext();
+            if (headers == null) {
+                throw new IOException("Not a CSV profile: " + file);
+            }
+            final List<String> columns = List.of(headers);
+            final int location = columns.indexOf("Location");
+            final int visits = columns.indexOf("Visits");
+            final int path = columns.indexOf("Path");
+            final TimeUnit unit = (headers.length > 2) ? unit(headers[2]) : null;
+            if (location != 0 || visits != 1 || path != 6 || unit == null) {
+                throw new IOException("Not a CSV profile: " + file);
+            }
+            final String abbreviation = UnitUtil.abbreviate(unit);
+            final int total = columns.indexOf("Total (%s)".formatted(abbreviation));
+            final int avg = columns.indexOf("Avg (%s)".formatted(abbreviation));
+            final int min = columns.indexOf("Min (%s)".formatted(abbreviation));
+            final int max = columns.indexOf("Max (%s)".formatted(abbreviation));
+            final int self = columns.indexOf("Self (%s)".formatted(abbreviation));
+            if (total < 0 || avg < 0 || min < 0 || max < 0 || self < 0) {
+                throw new IOException("Not a CSV profile: " + file);
+            }
+
+            final LocDataFactory factory = new LocDataFactory(unit);
+            final Map<String, LocData> entries = new LinkedHashMap<>();
+            final Map<String, LocData> byPath = new HashMap<>();
+            long totalRuntimeNanos = 0L;
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                if (row.length < headers.length) {
+                    throw new IOException("Truncated row %s in %s".formatted(reader.getLinesRead(), file));
+                }
+                final String loc = row[location];
+                final String rowPath = row[path];
+                // a location's path is its parent's followed by its loc, which starts with the separator
+                final LocData parent = (rowPath.length() > loc.length() && rowPath.endsWith(loc))
+                        ? byPath.get(rowPath.substring(0, rowPath.length() - loc.length()))
+                        : null;
+                final LocData data = new LocData(rowPath, loc, (parent == null) ? 1 : parent.depth() + 1, parent, factory);
+                try {
+                    final long visitCount = Long.parseLong(row[visits]);
+                    data.restore(visitCount, visitCount,
+                            unit.toNanos(Long.parseLong(row[total])),
+                            unit.toNanos(Long.parseLong(row[avg])),
+                            unit.toNanos(Long.parseLong(row[min])),
+                            unit.toNanos(Long.parseLong(row[max])),
+                            unit.toNanos(Long.parseLong(row[self])),
+                            0L, 0L, 0L);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid row %s in %s".formatted(reader.getLinesRead(), file), e);
+                }
+                if (parent == null) {
+                    totalRuntimeNanos += data.totalNanos();
+                }
+                entries.put(rowPath, data);
+                byPath.put(rowPath, data);
+            }
+            final String name = file.getFileName().toString();
+            final int extension = name.lastIndexOf('.');
+            return new CsvProfile((extension > 0) ? name.substring(0, extension) : name, unit, totalRuntimeNanos, entries);
+        } catch (CsvValidationException e) {
+            throw new IOException("Not a CSV profile: " + file, e);
+        }
+    }
+
+    /**
+     * @param header a time column's header, e.g. {@code Total (ms)}.
+     * @return the unit of the given header, or {@code null} if it is not a total column.
+     */
+    @Nullable
+    private static TimeUnit unit(@NotNull String header) {
+        for (TimeUnit unit : TimeUnit.values()) {
+            if (header.equals("Total (%s)".formatted(UnitUtil.abbreviate(unit)))) {
+                return unit;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void start() {
+        throw readOnly();
+    }
+
+    @Override
+    public LocData stop() {
+        throw readOnly();
+    }
+
+    @Override
+    public void push(@NotNull String location) {
+        throw readOnly();
+    }
+
+    @NotNull
+    @Override
+    public Scope scope(@NotNull Location location) {
+        throw readOnly();
+    }
+
+    @Override
+    public LocData pop() {
+        throw readOnly();
+    }
+
+    @Override
+    public LocData swapIf(@NotNull String location) {
+        throw readOnly();
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public TimeUnit getTimingPrecision() {
+        return precision;
+    }
+
+    /**
+     * @return an unmodifiable view of every {@link LocData} in the order they were written, keyed by full path.
+     */
+    @Override
+    public Set<Map.Entry<String, LocData>> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public long getTotalRuntime() {
+        return getTotalRuntime(precision);
+    }
+
+    @Override
+    public long getTotalRuntime(@NotNull TimeUnit unit) {
+        return unit.convert(totalRuntimeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @NotNull
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("CSV profile is read-only");
+    }
+}
\ No newline at end of file
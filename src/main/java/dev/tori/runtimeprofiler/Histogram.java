@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-memory, log-linear latency histogram.
+ * <p>
+ * Each power of two is split into {@value #SUB_BUCKETS} linear sub-buckets, so any recorded value is reported with
+ * a relative error below {@code 1/}{@value #SUB_BUCKETS}, i.e. about 3.1%, and values below {@value #SUB_BUCKETS}
+ * exactly. A histogram holds {@value #BUCKETS} counts, about 15 KiB, and recording never allocates.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts;
+    private long count;
+
+    public Histogram() {
+        this.counts = new long[BUCKETS];
+        this.count = 0L;
+    }
+
+    /**
+     * Records a single value. Negative values are recorded as {@code 0}.
+     */
+    public void record(long value) {
+        counts[index(Math.max(value, 0L))]++;
+        count++;
+    }
+
+    /**
+     * @return the total number of recorded values.
+     */
+    @Contract(pure = true)
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the value below which the given percentage of recorded values fall.
+     * <p>
+     * The result is the highest value equivalent to the matching bucket.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100} inclusive.
+     * @return the value at the given percentile, or {@code 0} if nothing was recorded.
+     * @throws IllegalArgumentException if {@code percentile} is out of range.
+     */
+    @Contract(pure = true)
+    public long valueAtPercentile(double percentile) {
+        if (percentile < 0.0D || percentile > 100.0D) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        if (count == 0L) {
+            return 0L;
+        }
+        final long target = Math.max(1L, (long) Math.ceil(percentile / 100.0D * count));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return highestEquivalentValue(BUCKETS - 1);
+    }
+
+    /**
+     * Adds every value recorded by {@code other} to this histogram. The count is summed from the buckets read, so
+     * it stays consistent with them even if another thread is recording into {@code other}.
+     */
+    public void add(@NotNull Histogram other) {
+        long added = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            final long bucket = other.counts[i];
+            counts[i] += bucket;
+            added += bucket;
+        }
+        count += added;
+    }
+
+    /**
+     * Removes every value recorded by {@code other} from this histogram, where {@code other} is an earlier copy
+     * of this histogram.
+     */
+    public void subtract(@NotNull Histogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = Math.max(0L, counts[i] - other.counts[i]);
+        }
+        count = Math.max(0L, count - other.count);
+    }
+
+    /**
+     * @return the lowest value equivalent to the lowest recorded value, or {@code 0} if nothing was recorded.
+     */
+    @Contract(pure = true)
+    public long minValue() {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0L) {
+                return lowestEquivalentValue(i);
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * @return the highest value equivalent to the highest recorded value, or {@code 0} if nothing was recorded.
+     */
+    @Contract(pure = true)
+    public long maxValue() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts[i] != 0L) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Counts the recorded values at or below each of the given {@code bounds}, e.g. for cumulative histogram buckets.
+     * A value is counted if the highest value equivalent to it is at or below the bound.
+     *
+     * @param bounds the bounds, in ascending order.
+     * @param counts receives the count of each bound, at the same index; at least as long as {@code bounds}.
+     */
+    public void cumulativeCounts(long @NotNull [] bounds, long @NotNull [] counts) {
+        long cumulative = 0L;
+        int next = 0;
+        for (int b = 0; b < bounds.length; b++) {
+            final int index = index(Math.max(bounds[b], 0L));
+            for (; next < index; next++) {
+                cumulative += this.counts[next];
+            }
+            counts[b] = (highestEquivalentValue(index) == bounds[b]) ? cumulative + this.counts[index] : cumulative;
+        }
+    }
+
+    /**
+     * Discards every recorded value.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        count = 0L;
+    }
+
+    /**
+     * @return a rough estimate of the heap retained by this histogram.
+     */
+    @Contract(pure = true)
+    public long estimatedBytes() {
+        return 32L + 16L + 8L * counts.length;
+    }
+
+    @Contract(pure = true)
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    @Contract(pure = true)
+    static long lowestEquivalentValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return ((long) (SUB_BUCKETS | (index & (SUB_BUCKETS - 1)))) << shift;
+    }
+
+    @Contract(pure = true)
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return lowestEquivalentValue(index) + (1L << shift) - 1L;
+    }
+}
\ No newline at end of file
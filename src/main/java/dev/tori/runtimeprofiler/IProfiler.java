@@ -23,10 +23,13 @@ package dev.tori.runtimeprofiler;
 
 import dev.tori.runtimeprofiler.config.Config;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * @author <a href="https://github.com/7orivorian">7orivorian</a>
@@ -59,6 +62,105 @@ public interface IProfiler {
      */
     void push(@NotNull String location);
 
+    /**
+     * Returns a reusable handle for the given location name.
+     * <p>
+     * Pushing the returned handle via {@link #push(Location)} avoids the per-call string work of {@link #push(String)}.
+     *
+     * @param name the name of the location.
+     * @return the {@link Location} handle for the given {@code name}.
+     * @throws IllegalArgumentException if the given {@code name} contains the
+     *                                  {@linkplain Config#pathSeparator() path separator}.
+     * @since 2.1.0
+     */
+    @NotNull
+    default Location location(@NotNull String name) {
+        return Location.of(name);
+    }
+
+    /**
+     * Pushes the given pre-registered location to the stack.
+     *
+     * @param location the location to push to.
+     * @throws IllegalStateException if this profiler is not started.
+     * @since 2.1.0
+     */
+    default void push(@NotNull Location location) {
+        push(location.name());
+    }
+
+    /**
+     * Pushes the given location and returns a {@link Scope} that pops it when closed.
+     * <pre>{@code
+     * try (Scope scope = profiler.scope(handle)) {
+     *     // Code to be profiled
+     * }
+     * }</pre>
+     *
+     * @param location the location to push to.
+     * @return the reusable scope of the new depth.
+     * @throws IllegalStateException         if this profiler is not started.
+     * @throws UnsupportedOperationException if this profiler does not support scopes.
+     * @since 2.1.0
+     */
+    @NotNull
+    default Scope scope(@NotNull Location location) {
+        throw new UnsupportedOperationException("Scopes are not supported by " + getClass().getName());
+    }
+
+    /**
+     * @param location the location to push to.
+     * @return the reusable scope of the new depth.
+     * @throws IllegalStateException    if this profiler is not started.
+     * @throws IllegalArgumentException if the given {@code location} contains the
+     *                                  {@linkplain Config#pathSeparator() path separator}.
+     * @see #scope(Location)
+     * @since 2.1.0
+     */
+    @NotNull
+    default Scope scope(@NotNull String location) {
+        return scope(location(location));
+    }
+
+    /**
+     * Runs {@code task} in the given location, recording the visit as exceptional if it throws.
+     *
+     * @param location the location to push to.
+     * @param task     the code to be profiled.
+     * @throws IllegalStateException if this profiler is not started.
+     * @since 2.1.0
+     */
+    default void run(@NotNull Location location, @NotNull Runnable task) {
+        try (Scope scope = scope(location)) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                scope.markExceptional();
+                throw t;
+            }
+        }
+    }
+
+    /**
+     * Calls {@code task} in the given location, recording the visit as exceptional if it throws.
+     *
+     * @param location the location to push to.
+     * @param task     the code to be profiled.
+     * @return the result of {@code task}.
+     * @throws IllegalStateException if this profiler is not started.
+     * @since 2.1.0
+     */
+    default <T> T call(@NotNull Location location, @NotNull Supplier<T> task) {
+        try (Scope scope = scope(location)) {
+            try {
+                return task.get();
+            } catch (Throwable t) {
+                scope.markExceptional();
+                throw t;
+            }
+        }
+    }
+
     /**
      * Pops the current location from the stack.
      *
@@ -80,6 +182,18 @@ public interface IProfiler {
         return data;
     }
 
+    /**
+     * @param location the location to push to.
+     * @return the popped {@link LocData}.
+     * @throws IllegalStateException if this profiler is not started.
+     * @since 2.1.0
+     */
+    default LocData swap(@NotNull Location location) {
+        final LocData data = pop();
+        push(location);
+        return data;
+    }
+
     /**
      * Swaps the top of the stack or simply pushes if the current top of the stack is root.
      * <p>
@@ -112,4 +226,107 @@ public interface IProfiler {
      * @since 1.1.0
      */
     long getTotalRuntime();
+
+    /**
+     * @return the total runtime in the given {@code unit}.
+     * @since 2.1.0
+     */
+    default long getTotalRuntime(@NotNull TimeUnit unit) {
+        return unit.convert(getTotalRuntime(), getTimingPrecision());
+    }
+
+    /**
+     * Captures an immutable copy of the current statistics without stopping this profiler.
+     * Visits in progress are recorded as if they ended now.
+     *
+     * @return a new {@link Snapshot}.
+     * @throws UnsupportedOperationException if this profiler does not support snapshots.
+     * @since 2.1.0
+     */
+    @NotNull
+    default Snapshot snapshot() {
+        throw new UnsupportedOperationException("Snapshots are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Captures an immutable copy of the current statistics, like {@link #snapshot()}, and discards them, so that
+     * the next snapshot only covers the time after this one.
+     *
+     * @return a new {@link Snapshot}.
+     * @throws IllegalStateException         if this profiler is not started.
+     * @throws UnsupportedOperationException if this profiler does not support snapshots.
+     * @since 2.1.0
+     */
+    @NotNull
+    default Snapshot snapshotAndReset() {
+        throw new UnsupportedOperationException("Snapshots are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Returns the measured overhead of this profiler, or {@code null} if it is unknown.
+     *
+     * @since 2.1.0
+     */
+    @Nullable
+    default Calibration getCalibration() {
+        return null;
+    }
+
+    /**
+     * Sets whether pushes are recorded. While disabled, pushes and their pops are ignored.
+     *
+     * @param enabled {@code false} to stop recording new visits.
+     * @throws UnsupportedOperationException if this profiler does not record, e.g. a {@link Snapshot}.
+     * @since 2.1.0
+     */
+    default void setEnabled(boolean enabled) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot be enabled or disabled");
+    }
+
+    /**
+     * @return {@code true} if pushes are recorded.
+     * @since 2.1.0
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the estimated overhead is subtracted from each node's time.
+     * @since 2.1.0
+     */
+    default boolean isOverheadCompensated() {
+        return false;
+    }
+
+    /**
+     * Returns a read-only view of this profiler that reports every time in the given {@code precision}.
+     * <p>
+     * Statistics are recorded in nanoseconds, so a finished profile can be re-rendered in any unit without
+     * losing precision.
+     *
+     * @param precision the {@linkplain TimeUnit precision} to report.
+     * @return a read-only view of this profiler.
+     * @since 2.1.0
+     */
+    @NotNull
+    default IProfiler withPrecision(@NotNull TimeUnit precision) {
+        return new ProfilerView(this, precision, null);
+    }
+
+    /**
+     * Returns a read-only view of this profiler whose {@linkplain #getEntries() entries} are sorted by
+     * {@code order} instead of in depth-first order.
+     * <pre>{@code
+     * ConsoleWriter.FULL.print(profiler.sorted(LocData.BY_SELF_TIME), System.out);
+     * }</pre>
+     *
+     * @param order the order of the entries.
+     * @return a read-only view of this profiler.
+     * @since 2.1.0
+     */
+    @NotNull
+    default IProfiler sorted(@NotNull Comparator<? super LocData> order) {
+        return new ProfilerView(this, getTimingPrecision(), order);
+    }
 }
\ No newline at end of file
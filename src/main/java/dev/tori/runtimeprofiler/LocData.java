@@ -21,22 +21,62 @@
 
 package dev.tori.runtimeprofiler;
 
+import dev.tori.runtimeprofiler.config.Config;
 import dev.tori.runtimeprofiler.util.Stopwatch;
 import dev.tori.runtimeprofiler.util.UnitUtil;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * Timing data for a single location, which is also a node in the profiler's call tree.
+ *
  * @author <a href="https://github.com/7orivorian">7orivorian</a>
  * @since 1.0.0
  */
 public class LocData {
 
-    private final @NotNull String path;
-    private final @NotNull String loc;
+    /**
+     * Orders {@link LocData} by descending {@linkplain #selfNanos() self time}.
+     *
+     * @since 2.1.0
+     */
+    public static final Comparator<LocData> BY_SELF_TIME = Comparator.comparingLong(LocData::selfNanos).reversed();
+
+    /**
+     * Orders {@link LocData} by descending {@linkplain #totalNanos() total time}.
+     *
+     * @since 2.1.0
+     */
+    public static final Comparator<LocData> BY_TOTAL_TIME = Comparator.comparingLong(LocData::totalNanos).reversed();
+
+    private static final LocData[] NO_CHILDREN = new LocData[0];
+    private static final VarHandle SEQ;
+
+    static {
+        try {
+            SEQ = MethodHandles.lookup().findVarHandle(LocData.class, "seq", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The full path, or {@code null} if this node derives it from its {@link #parent}.
+     */
+    private final @Nullable String path;
+    private final @Nullable String loc;
     private final @NotNull TimeUnit timeUnit;
     private final @NotNull Stopwatch stopwatch;
 
@@ -45,64 +85,945 @@ public class LocData {
      */
     private final int depth;
 
-    private long total = 0L;
-    private long maxTime = Long.MIN_VALUE;
-    private long minTime = Long.MAX_VALUE;
+    /**
+     * @since 2.1.0
+     */
+    private final @Nullable LocData parent;
+    private final @Nullable Location location;
+    private final @Nullable Histogram histogram;
+    private final @NotNull Sampling sampling;
+
+    /**
+     * Open-addressed child table keyed by {@link Location#id()}, plus sibling links to keep insertion order.
+     * Only the sibling links are read by other threads, so a child is published by linking it once fully built.
+     *
+     * @since 2.1.0
+     */
+    private LocData[] childTable = NO_CHILDREN;
+    private int childCount = 0;
+    private volatile @Nullable LocData firstChild;
+    private @Nullable LocData lastChild;
+    private volatile @Nullable LocData nextSibling;
+
+    /**
+     * Sequence lock of the statistics: odd while a visit is being recorded, so that another thread can
+     * {@linkplain #readStats(LocData) read} them consistently.
+     *
+     * @since 2.1.0
+     */
+    @SuppressWarnings("unused")
+    private int seq = 0;
+
+    /**
+     * Accumulated in nanoseconds; conversion to {@link #timeUnit} only happens in the accessors.
+     *
+     * @since 2.1.0
+     */
+    private long totalNanos = 0L;
+    private long maxNanos = Long.MIN_VALUE;
+    private long minNanos = Long.MAX_VALUE;
     private long visits = 0L;
 
+    /**
+     * Sampling state; {@code totalNanos}, {@code minNanos}, {@code maxNanos} and the histogram only cover timed visits.
+     *
+     * @since 2.1.0
+     */
+    private long sampledVisits = 0L;
+
+    /**
+     * Total and self time of every visit, where each untimed visit stands in for the last timed visit before it.
+     * Only reported while some visits were not timed.
+     *
+     * @since 2.1.0
+     */
+    private long estimatedTotalNanos = 0L;
+    private long estimatedSelfNanos = 0L;
+    private long lastNanos = 0L;
+    private long lastSelfNanos = 0L;
+    private int interval;
+    private int countdown = 0;
+    private boolean timing = false;
+
+    /**
+     * Estimated profiler overhead included in this node's total, subtracted by the accessors.
+     *
+     * @since 2.1.0
+     */
+    private long overheadNanos = 0L;
+
+    /**
+     * Visits that ended with an exception; {@code exceptionalNanos} only covers the timed ones.
+     *
+     * @since 2.1.0
+     */
+    private long exceptionalVisits = 0L;
+    private long exceptionalSampledVisits = 0L;
+    private long exceptionalNanos = 0L;
+
+    /**
+     * Exclusive time of timed visits, and of visits that {@linkplain #reenter re-entered} this node while it was
+     * already active.
+     *
+     * @since 2.1.0
+     */
+    private long selfNanos = 0L;
+    private long recursiveVisits = 0L;
+    private long recursiveSelfNanos = 0L;
+    private long selfOverheadNanos = 0L;
+
     /**
      * @since 1.2.0
      */
     public LocData(@NotNull String path, @NotNull String loc, @NotNull TimeUnit timeUnit, int depth) {
+        this(path, loc, depth, new LocDataFactory(timeUnit));
+    }
+
+    /**
+     * @param factory the factory whose precision, histogram and sampling settings apply to this {@link LocData}.
+     * @since 2.1.0
+     */
+    public LocData(@NotNull String path, @NotNull String loc, int depth, @NotNull LocDataFactory factory) {
+        this(path, loc, depth, null, null, factory);
+    }
+
+    /**
+     * Constructs a node that is not part of a call tree, but still links to its {@code parent}.
+     *
+     * @since 2.1.0
+     */
+    LocData(@NotNull String path, @NotNull String loc, int depth, @Nullable LocData parent, @NotNull LocDataFactory factory) {
+        this(path, loc, depth, parent, null, factory);
+    }
+
+    /**
+     * Constructs a call tree node whose path is derived from its {@code parent}.
+     *
+     * @param parent   the parent node, or {@code null} if this is a top-level node.
+     * @param location the location of this node, or {@code null} if this is a tree's sentinel.
+     * @since 2.1.0
+     */
+    LocData(@Nullable LocData parent, @Nullable Location location, @NotNull LocDataFactory factory) {
+        this(null, null, (location == null) ? 0 : (parent == null) ? 1 : parent.depth + 1, parent, location, factory);
+    }
+
+    private LocData(@Nullable String path, @Nullable String loc, int depth,
+                    @Nullable LocData parent, @Nullable Location location, @NotNull LocDataFactory factory) {
         this.path = path;
         this.loc = loc;
-        this.timeUnit = timeUnit;
-        this.stopwatch = new Stopwatch();
+        this.timeUnit = factory.timeUnit();
+        this.stopwatch = new Stopwatch(factory.clock());
         this.depth = depth;
+        this.parent = parent;
+        this.location = location;
+        // a tree's sentinel is never timed, so it doesn't need a histogram
+        this.histogram = (factory.histograms() && (path != null || location != null)) ? new Histogram() : null;
+        this.sampling = factory.sampling();
+        this.interval = sampling.initialInterval();
     }
 
     public void push() {
-        stopwatch.snap(timeUnit);
+        if (--countdown <= 0) {
+            countdown = interval;
+            timing = true;
+            stopwatch.snapNanos();
+        } else {
+            timing = false;
+        }
     }
 
     public void pop() {
+        pop(false, 0L);
+    }
+
+    /**
+     * Pops a visit that ended with an exception. The visit counts towards every statistic like a normal
+     * {@link #pop()}, and additionally towards the {@linkplain #exceptionalVisits() exceptional} ones.
+     *
+     * @since 2.1.0
+     */
+    public void popExceptional() {
+        pop(true, 0L);
+    }
+
+    /**
+     * @param exceptional whether the visit ended with an exception.
+     * @param childNanos  the time spent in children during this visit, excluded from the {@linkplain #selfNanos()
+     *                    self time}.
+     * @return the elapsed time of the visit in nanoseconds, or {@code -1} if it was not timed.
+     * @since 2.1.0
+     */
+    long pop(boolean exceptional, long childNanos) {
+        beginWrite();
+        final long elapsed = finish();
+        if (elapsed >= 0L) {
+            recordSelf(Math.max(0L, elapsed - childNanos));
+        }
+        if (exceptional) {
+            exceptionalVisits++;
+            if (elapsed >= 0L) {
+                exceptionalSampledVisits++;
+                exceptionalNanos += elapsed;
+            }
+        }
+        endWrite();
+        return elapsed;
+    }
+
+    /**
+     * Records a visit that re-entered this node while it was already active. Its time is already part of the
+     * enclosing visit, so only its self time is recorded.
+     *
+     * @param elapsedNanos the elapsed time of the visit.
+     * @param childNanos   the time spent in children during the visit.
+     * @param exceptional  whether the visit ended with an exception.
+     * @since 2.1.0
+     */
+    void reenter(long elapsedNanos, long childNanos, boolean exceptional) {
+        beginWrite();
+        recursiveVisits++;
+        recursiveSelfNanos += Math.max(0L, elapsedNanos - childNanos);
+        if (exceptional) {
+            exceptionalVisits++;
+            exceptionalSampledVisits++;
+            exceptionalNanos += elapsedNanos;
+        }
+        endWrite();
+    }
+
+    private void beginWrite() {
+        SEQ.setOpaque(this, seq + 1);
+        VarHandle.storeStoreFence();
+    }
+
+    private void endWrite() {
+        SEQ.setRelease(this, seq + 1);
+    }
+
+    /**
+     * Copies every statistic but the histogram from {@code other}, a node that another thread may be recording
+     * into. The copied statistics are consistent with each other; {@code other}'s histogram is read separately by
+     * {@link Histogram#add(Histogram)}, so it may be a few visits ahead or behind.
+     *
+     * @since 2.1.0
+     */
+    void readStats(@NotNull LocData other) {
+        for (int attempt = 1; ; attempt++) {
+            final int start = (int) SEQ.getAcquire(other);
+            if ((start & 1) == 0) {
+                visits = other.visits;
+                sampledVisits = other.sampledVisits;
+                estimatedTotalNanos = other.estimatedTotalNanos;
+                estimatedSelfNanos = other.estimatedSelfNanos;
+                totalNanos = other.totalNanos;
+                maxNanos = other.maxNanos;
+                minNanos = other.minNanos;
+                exceptionalVisits = other.exceptionalVisits;
+                exceptionalSampledVisits = other.exceptionalSampledVisits;
+                exceptionalNanos = other.exceptionalNanos;
+                selfNanos = other.selfNanos;
+                recursiveVisits = other.recursiveVisits;
+                recursiveSelfNanos = other.recursiveSelfNanos;
+                VarHandle.loadLoadFence();
+                if ((int) SEQ.getOpaque(other) == start) {
+                    return;
+                }
+            }
+            if ((attempt & 63) == 0) {
+                // the recording thread may have been descheduled mid-visit
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * @return the elapsed time of the visit in nanoseconds, or {@code -1} if it was not timed.
+     */
+    private long finish() {
+        if (!timing) {
+            skip();
+            return -1L;
+        }
+        final long elapsed = stopwatch.snapNanos();
+        record(elapsed);
+        if ((sampledVisits & (Sampling.ADAPT_PERIOD - 1)) == 0L && interval < sampling.maxInterval()) {
+            interval = Math.min(interval * 2, sampling.maxInterval());
+        }
+        return elapsed;
+    }
+
+    /**
+     * Records a single timed visit that took {@code elapsedNanos} nanoseconds.
+     *
+     * @since 2.1.0
+     */
+    void record(long elapsedNanos) {
         visits++;
-        long elapsed = stopwatch.snap(timeUnit);
-        total += elapsed;
-        maxTime = Math.max(elapsed, maxTime);
-        minTime = Math.min(elapsed, minTime);
+        sampledVisits++;
+        totalNanos += elapsedNanos;
+        estimatedTotalNanos += elapsedNanos;
+        lastNanos = elapsedNanos;
+        maxNanos = Math.max(elapsedNanos, maxNanos);
+        minNanos = Math.min(elapsedNanos, minNanos);
+        if (histogram != null) {
+            histogram.record(elapsedNanos);
+        }
+    }
+
+    /**
+     * Records the self time of the timed visit just {@linkplain #record(long) recorded}.
+     */
+    private void recordSelf(long selfNanos) {
+        this.selfNanos += selfNanos;
+        estimatedSelfNanos += selfNanos;
+        lastSelfNanos = selfNanos;
     }
 
+    /**
+     * @return the time an untimed visit is estimated to take, i.e. that of the last timed visit.
+     * @since 2.1.0
+     */
+    long lastNanos() {
+        return lastNanos;
+    }
+
+    /**
+     * Records a visit that was not timed, estimated to have taken as long as the last timed visit.
+     */
+    private void skip() {
+        visits++;
+        estimatedTotalNanos += lastNanos;
+        estimatedSelfNanos += lastSelfNanos;
+    }
+
+    /**
+     * Adds the statistics of {@code other} to this node, regardless of either's {@linkplain #timeUnit() time unit}.
+     * Children are not merged.
+     *
+     * @since 2.1.0
+     */
+    void merge(@NotNull LocData other) {
+        if (other.visits == 0L) {
+            return;
+        }
+        visits += other.visits;
+        sampledVisits += other.sampledVisits;
+        estimatedTotalNanos += other.estimatedTotalNanos;
+        estimatedSelfNanos += other.estimatedSelfNanos;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(other.maxNanos, maxNanos);
+        minNanos = Math.min(other.minNanos, minNanos);
+        exceptionalVisits += other.exceptionalVisits;
+        exceptionalSampledVisits += other.exceptionalSampledVisits;
+        exceptionalNanos += other.exceptionalNanos;
+        selfNanos += other.selfNanos;
+        recursiveVisits += other.recursiveVisits;
+        recursiveSelfNanos += other.recursiveSelfNanos;
+        if (histogram != null && other.histogram != null) {
+            histogram.add(other.histogram);
+        }
+    }
+
+    /**
+     * Removes the statistics of {@code baseline}, an earlier copy of this node, leaving only what was recorded since.
+     * <p>
+     * Min and max can't be subtracted; they are derived from the {@linkplain #histogram() histogram} if there is
+     * one, and otherwise still cover everything recorded.
+     *
+     * @since 2.1.0
+     */
+    void subtract(@NotNull LocData baseline) {
+        visits -= baseline.visits;
+        sampledVisits -= baseline.sampledVisits;
+        estimatedTotalNanos -= baseline.estimatedTotalNanos;
+        estimatedSelfNanos -= baseline.estimatedSelfNanos;
+        totalNanos -= baseline.totalNanos;
+        exceptionalVisits -= baseline.exceptionalVisits;
+        exceptionalSampledVisits -= baseline.exceptionalSampledVisits;
+        exceptionalNanos -= baseline.exceptionalNanos;
+        selfNanos -= baseline.selfNanos;
+        recursiveVisits -= baseline.recursiveVisits;
+        recursiveSelfNanos -= baseline.recursiveSelfNanos;
+        if (histogram != null && baseline.histogram != null) {
+            histogram.subtract(baseline.histogram);
+            if (histogram.count() != 0L) {
+                minNanos = Math.max(minNanos, histogram.minValue());
+                maxNanos = Math.min(maxNanos, histogram.maxValue());
+            }
+        }
+    }
+
+    /**
+     * Sets every statistic from the values previously returned by the accessors, e.g. when reading a
+     * {@link BinaryProfile}.
+     *
+     * @since 2.1.0
+     */
+    void restore(long visits, long sampledVisits, long totalNanos, long avgNanos, long minNanos, long maxNanos,
+                 long selfNanos, long exceptionalVisits, long exceptionalNanos, long recursiveVisits) {
+        this.visits = visits;
+        this.sampledVisits = sampledVisits;
+        this.estimatedTotalNanos = totalNanos;
+        this.estimatedSelfNanos = selfNanos;
+        this.totalNanos = (sampledVisits == visits) ? totalNanos : avgNanos * sampledVisits;
+        this.selfNanos = (sampledVisits == visits || totalNanos == 0L) ? selfNanos
+                : (long) ((double) selfNanos * this.totalNanos / totalNanos);
+        this.minNanos = minNanos;
+        this.maxNanos = maxNanos;
+        this.exceptionalVisits = exceptionalVisits;
+        this.exceptionalSampledVisits = exceptionalVisits;
+        this.exceptionalNanos = exceptionalNanos;
+        this.recursiveVisits = recursiveVisits;
+    }
+
+    /**
+     * Discards every statistic without affecting a visit in progress. The sampling interval is kept, but the next
+     * visit is timed, so that the statistics recorded since start with a timed visit.
+     *
+     * @since 2.1.0
+     */
+    void resetStats() {
+        countdown = 0;
+        visits = 0L;
+        sampledVisits = 0L;
+        estimatedTotalNanos = 0L;
+        estimatedSelfNanos = 0L;
+        totalNanos = 0L;
+        maxNanos = Long.MIN_VALUE;
+        minNanos = Long.MAX_VALUE;
+        exceptionalVisits = 0L;
+        exceptionalSampledVisits = 0L;
+        exceptionalNanos = 0L;
+        selfNanos = 0L;
+        recursiveVisits = 0L;
+        recursiveSelfNanos = 0L;
+        overheadNanos = 0L;
+        selfOverheadNanos = 0L;
+        if (histogram != null) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * @return the time elapsed in the visit in progress, or {@code -1} if it is not timed.
+     * @since 2.1.0
+     */
+    long openNanos() {
+        return timing ? stopwatch.peekNanos() : -1L;
+    }
+
+    /**
+     * Restarts the timing of the visit in progress, so time before now is not recorded when it is popped.
+     *
+     * @since 2.1.0
+     */
+    void restart() {
+        if (timing) {
+            stopwatch.snapNanos();
+        }
+    }
+
+    /**
+     * Records a visit that is still in progress on another node as if it ended now.
+     *
+     * @param elapsedNanos the time elapsed in the visit, or {@code -1} if it is not timed.
+     * @param childNanos   the time spent in children during the visit.
+     * @since 2.1.0
+     */
+    void recordOpen(long elapsedNanos, long childNanos) {
+        if (elapsedNanos < 0L) {
+            skip();
+            return;
+        }
+        record(elapsedNanos);
+        recordSelf(Math.max(0L, elapsedNanos - childNanos));
+    }
+
+    /**
+     * @param location the location of the child.
+     * @return the child with the given {@code location}, or {@code null} if none.
+     * @since 2.1.0
+     */
+    @Nullable
+    LocData child(@NotNull Location location) {
+        final LocData[] table = childTable;
+        if (table.length == 0) {
+            return null;
+        }
+        final int mask = table.length - 1;
+        for (int i = slot(location, mask); ; i = (i + 1) & mask) {
+            final LocData child = table[i];
+            if (child == null || child.location == location) {
+                return child;
+            }
+        }
+    }
+
+    /**
+     * Adds the given {@code child}, whose location must not already be present.
+     *
+     * @since 2.1.0
+     */
+    void addChild(@NotNull LocData child) {
+        if ((childCount + 1) * 2 > childTable.length) {
+            rehash(Math.max(4, childTable.length * 2));
+        }
+        insert(childTable, child);
+        childCount++;
+        if (lastChild == null) {
+            firstChild = child;
+        } else {
+            lastChild.nextSibling = child;
+        }
+        lastChild = child;
+    }
+
+    /**
+     * Removes all children of this node.
+     *
+     * @since 2.1.0
+     */
+    void clearChildren() {
+        childTable = NO_CHILDREN;
+        childCount = 0;
+        firstChild = lastChild = null;
+    }
+
+    private void rehash(int capacity) {
+        final LocData[] table = new LocData[capacity];
+        for (LocData child = firstChild; child != null; child = child.nextSibling) {
+            insert(table, child);
+        }
+        childTable = table;
+    }
+
+    private static void insert(LocData @NotNull [] table, @NotNull LocData child) {
+        final int mask = table.length - 1;
+        int i = slot(child.location, mask);
+        while (table[i] != null) {
+            i = (i + 1) & mask;
+        }
+        table[i] = child;
+    }
+
+    static int slot(@NotNull Location location, int mask) {
+        final int h = location.id() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * @return the first child of this node in insertion order, or {@code null} if none.
+     * @since 2.1.0
+     */
+    @ApiStatus.Internal
+    @Nullable
+    public LocData firstChild() {
+        return firstChild;
+    }
+
+    /**
+     * @return the next sibling of this node in insertion order, or {@code null} if none.
+     * @since 2.1.0
+     */
+    @ApiStatus.Internal
+    @Nullable
+    public LocData nextSibling() {
+        return nextSibling;
+    }
+
+    /**
+     * @return the children of this node in insertion order.
+     * @since 2.1.0
+     */
+    @NotNull
+    public List<LocData> children() {
+        final List<LocData> list = new ArrayList<>(childCount);
+        for (LocData child = firstChild; child != null; child = child.nextSibling) {
+            list.add(child);
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * @return the parent of this node, or {@code null} if this is a top-level node.
+     * @since 2.1.0
+     */
+    @Nullable
+    public LocData parent() {
+        return parent;
+    }
+
+    /**
+     * @return the location of this node, or {@code null} if it was not created by a profiler.
+     * @since 2.1.0
+     */
+    @Nullable
+    public Location location() {
+        return location;
+    }
+
+    /**
+     * Builds the full path of this node. Tree nodes do not retain their path, so each call walks up the parents.
+     */
     @NotNull
     public String path() {
-        return path;
+        if (path != null) {
+            return path;
+        }
+        if (location == null) {
+            return "";
+        }
+        if (parent == null) {
+            return location.name();
+        }
+        final String separator = Config.pathSeparator();
+        final String[] names = new String[depth];
+        int length = 0;
+        LocData node = this;
+        for (int i = depth - 1; i >= 0; i--) {
+            names[i] = node.location.name();
+            length += names[i].length();
+            node = node.parent;
+        }
+        final StringBuilder sb = new StringBuilder(length + separator.length() * (depth - 1));
+        sb.append(names[0]);
+        for (int i = 1; i < depth; i++) {
+            sb.append(separator).append(names[i]);
+        }
+        return sb.toString();
     }
 
+    /**
+     * loc includes any leading separator to make clear at a glance
+     * that it's a sub-location in the event of duplicate loc names.
+     */
     @NotNull
     public String loc() {
-        return loc;
+        if (loc != null) {
+            return loc;
+        }
+        if (location == null) {
+            return "";
+        }
+        return (parent == null) ? location.name() : Config.pathSeparator() + location.name();
     }
 
+    /**
+     * @return the total time spent in this location, in this location's {@linkplain #timeUnit() time unit}.
+     * @see #totalNanos()
+     */
     public long total() {
-        return total;
+        return total(timeUnit);
     }
 
+    /**
+     * @return the total time spent in this location, in the given {@code unit}.
+     * @see #totalNanos()
+     * @since 2.1.0
+     */
+    public long total(@NotNull TimeUnit unit) {
+        return unit.convert(totalNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the total nanoseconds spent in this location. If only some visits were timed, each visit that was not
+     * is estimated to have taken as long as the last timed visit before it.
+     * @since 2.1.0
+     */
+    public long totalNanos() {
+        final long total = (sampledVisits == visits) ? totalNanos : estimatedTotalNanos;
+        return Math.max(0L, total - overheadNanos);
+    }
+
+    /**
+     * @return the average time of a timed visit, in this location's {@linkplain #timeUnit() time unit}.
+     */
     public long avg() {
-        return total / visits;
+        return avg(timeUnit);
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    public long avg(@NotNull TimeUnit unit) {
+        return unit.convert(avgNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the average time of a timed visit, or the estimated average of every visit if none was timed.
+     * @since 2.1.0
+     */
+    public long avgNanos() {
+        if (sampledVisits == 0L) {
+            return (visits == 0L) ? 0L : totalNanos() / visits;
+        }
+        final long avg = totalNanos / sampledVisits;
+        return (overheadNanos == 0L) ? avg : Math.max(0L, avg - overheadNanos / visits);
+    }
+
+    /**
+     * @return the time spent in this location itself, excluding its children, in this location's
+     * {@linkplain #timeUnit() time unit}.
+     * @since 2.1.0
+     */
+    public long self() {
+        return self(timeUnit);
+    }
+
+    /**
+     * @return the time spent in this location itself, excluding its children, in the given {@code unit}.
+     * @see #selfNanos()
+     * @since 2.1.0
+     */
+    public long self(@NotNull TimeUnit unit) {
+        return unit.convert(selfNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the nanoseconds spent in this location itself, excluding its children, including
+     * {@linkplain #recursiveVisits() recursive visits}. If only some visits were timed, it is estimated
+     * like {@link #totalNanos()}.
+     * @since 2.1.0
+     */
+    public long selfNanos() {
+        final long self = (sampledVisits == visits) ? selfNanos : estimatedSelfNanos;
+        return Math.max(0L, self + recursiveSelfNanos - selfOverheadNanos);
+    }
+
+    /**
+     * @return the number of visits that re-entered this location while it was already active, which are not
+     * counted in {@link #visits()}.
+     * @see LocDataFactory#collapseRecursion()
+     * @since 2.1.0
+     */
+    public long recursiveVisits() {
+        return recursiveVisits;
     }
 
     public long maxTime() {
-        return maxTime;
+        return maxTime(timeUnit);
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    public long maxTime(@NotNull TimeUnit unit) {
+        return unit.convert(maxNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the longest timed visit, or {@code 0} if no visit was timed.
+     * @since 2.1.0
+     */
+    public long maxNanos() {
+        return (sampledVisits == 0L) ? 0L : maxNanos;
     }
 
     public long minTime() {
-        return minTime;
+        return minTime(timeUnit);
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    public long minTime(@NotNull TimeUnit unit) {
+        return unit.convert(minNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the shortest timed visit, or {@code 0} if no visit was timed.
+     * @since 2.1.0
+     */
+    public long minNanos() {
+        return (sampledVisits == 0L) ? 0L : minNanos;
     }
 
     public long visits() {
         return visits;
     }
 
+    /**
+     * @return the number of visits that ended with an exception.
+     * @see #popExceptional()
+     * @since 2.1.0
+     */
+    public long exceptionalVisits() {
+        return exceptionalVisits;
+    }
+
+    /**
+     * @return the total time of the visits that ended with an exception, extrapolated from the timed ones.
+     * @since 2.1.0
+     */
+    public long exceptionalTotalNanos() {
+        if (exceptionalSampledVisits == 0L) {
+            return 0L;
+        }
+        return (exceptionalSampledVisits == exceptionalVisits) ? exceptionalNanos
+                : (long) ((double) exceptionalNanos / exceptionalSampledVisits * exceptionalVisits);
+    }
+
+    /**
+     * @return the total time of the visits that ended with an exception, in the given {@code unit}.
+     * @since 2.1.0
+     */
+    public long exceptionalTotal(@NotNull TimeUnit unit) {
+        return unit.convert(exceptionalTotalNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the average time of the timed visits that ended with an exception, or {@code 0} if none.
+     * @since 2.1.0
+     */
+    public long exceptionalAvgNanos() {
+        return (exceptionalSampledVisits == 0L) ? 0L : exceptionalNanos / exceptionalSampledVisits;
+    }
+
+    /**
+     * @return the average time of the timed visits that ended with an exception, in the given {@code unit}.
+     * @since 2.1.0
+     */
+    public long exceptionalAvg(@NotNull TimeUnit unit) {
+        return unit.convert(exceptionalAvgNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the estimated profiler overhead subtracted from {@link #totalNanos()} and {@link #avgNanos()},
+     * or {@code 0} if overhead compensation is not enabled.
+     * @see Calibration
+     * @since 2.1.0
+     */
+    public long overheadNanos() {
+        return overheadNanos;
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    void setOverheadNanos(long overheadNanos, long selfOverheadNanos) {
+        this.overheadNanos = overheadNanos;
+        this.selfOverheadNanos = selfOverheadNanos;
+    }
+
+    /**
+     * @return a rough estimate of the heap retained by this node, excluding its children.
+     * @since 2.1.0
+     */
+    @ApiStatus.Internal
+    public long estimatedBytes() {
+        long bytes = 144L + 24L; // this node and its stopwatch
+        bytes += (childTable.length == 0) ? 0L : 16L + 4L * childTable.length;
+        if (histogram != null) {
+            bytes += histogram.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the number of visits that were timed.
+     * @since 2.1.0
+     */
+    public long sampledVisits() {
+        return sampledVisits;
+    }
+
+    /**
+     * @return the total nanoseconds of the timed visits as recorded, i.e. the sum of the values in the
+     * {@linkplain #histogram() histogram}; neither estimated for untimed visits nor reduced by overhead compensation.
+     * @since 2.1.0
+     */
+    public long sampledTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return the fraction of visits that were timed, between {@code 0} and {@code 1}.
+     * @since 2.1.0
+     */
+    public double samplingRatio() {
+        return (visits == 0L) ? 1.0D : (double) sampledVisits / visits;
+    }
+
+    /**
+     * @return the sampling policy of this location.
+     * @since 2.1.0
+     */
+    @NotNull
+    public Sampling sampling() {
+        return sampling;
+    }
+
+    /**
+     * @return the latency histogram of this location, or {@code null} if histograms are not enabled.
+     * @since 2.1.0
+     */
+    @Nullable
+    public Histogram histogram() {
+        return histogram;
+    }
+
+    /**
+     * @param percentile the percentile, between {@code 0} and {@code 100} inclusive.
+     * @return the visit time at the given percentile, in this location's {@linkplain #timeUnit() time unit}.
+     * @throws IllegalStateException if histograms are not enabled for this location.
+     * @since 2.1.0
+     */
+    public long percentile(double percentile) {
+        return percentile(percentile, timeUnit);
+    }
+
+    /**
+     * @param percentile the percentile, between {@code 0} and {@code 100} inclusive.
+     * @param unit       the unit of the returned time.
+     * @return the visit time at the given percentile, or {@code 0} if no visit was timed.
+     * @throws IllegalStateException if histograms are not enabled for this location.
+     * @since 2.1.0
+     */
+    public long percentile(double percentile, @NotNull TimeUnit unit) {
+        if (histogram == null) {
+            throw new IllegalStateException("Histograms are not enabled for " + path());
+        }
+        // validates the percentile even if no visit was timed
+        final long value = histogram.valueAtPercentile(percentile);
+        if (sampledVisits == 0L) {
+            return 0L;
+        }
+        return unit.convert(Math.min(value, maxNanos()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    public long p50() {
+        return percentile(50.0D);
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    public long p90() {
+        return percentile(90.0D);
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    public long p99() {
+        return percentile(99.0D);
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    public long p999() {
+        return percentile(99.9D);
+    }
+
+    /**
+     * @return the time unit returned by accessors that don't take one. Statistics are always recorded in nanoseconds.
+     */
     @NotNull
     public TimeUnit timeUnit() {
         return timeUnit;
@@ -120,33 +1041,102 @@ public class LocData {
      * @since 1.2.0
      */
     public int depthCompat() {
-        return (depth == -1) ? (path.split("/").length - 1) : depth;
+        return (depth == -1) ? (path().split("/").length - 1) : depth;
+    }
+
+    /**
+     * @return the {@linkplain #samplingRatio() sampling ratio} as a percentage, e.g. {@code 12.5%}.
+     * @since 2.1.0
+     */
+    @ApiStatus.Internal
+    @NotNull
+    public String samplingPercent() {
+        final long tenths = Math.round(samplingRatio() * 100.0D * 10.0D);
+        return (tenths / 10) + "." + (tenths % 10) + "%";
     }
 
     @ApiStatus.Internal
     @NotNull
     @Contract("_ -> new")
     public static String @NotNull [] csvHeaders(TimeUnit timeUnit) {
+        return csvHeaders(timeUnit, false, false);
+    }
+
+    /**
+     * @param percentiles whether to include the percentile columns written by {@link #csvRow()} for
+     *                    locations with a {@link #histogram()}.
+     * @param sampled     whether to include the sampling column written by {@link #csvRow()} for
+     *                    locations with {@linkplain Sampling#isEnabled() sampling}.
+     * @since 2.1.0
+     */
+    @ApiStatus.Internal
+    @NotNull
+    @Contract("_, _, _ -> new")
+    public static String @NotNull [] csvHeaders(TimeUnit timeUnit, boolean percentiles, boolean sampled) {
         String abbr = UnitUtil.abbreviate(timeUnit);
-        return new String[]{"Location", "Visits", "Total (%s)".formatted(abbr), "Avg (%s)".formatted(abbr), "Min (%s)".formatted(abbr), "Max (%s)".formatted(abbr), "Path"};
+        // columns added since 2.1.0 follow the original ones, so that their indices stay stable
+        List<String> headers = new ArrayList<>(List.of("Location", "Visits", "Total (%s)".formatted(abbr), "Avg (%s)".formatted(abbr), "Min (%s)".formatted(abbr), "Max (%s)".formatted(abbr), "Path", "Self (%s)".formatted(abbr)));
+        if (sampled) {
+            headers.add("Sampled");
+        }
+        if (percentiles) {
+            headers.addAll(List.of("P50 (%s)".formatted(abbr), "P90 (%s)".formatted(abbr), "P99 (%s)".formatted(abbr), "P99.9 (%s)".formatted(abbr)));
+        }
+        return headers.toArray(String[]::new);
     }
 
     @ApiStatus.Internal
     @NotNull
     public String[] csvRow() {
-        return new String[]{loc(), String.valueOf(visits()), String.valueOf(total()), String.valueOf(avg()), String.valueOf(minTime()), String.valueOf(maxTime()), path()};
+        return csvRow(timeUnit);
+    }
+
+    /**
+     * @param unit the unit to write times in.
+     * @since 2.1.0
+     */
+    @ApiStatus.Internal
+    @NotNull
+    public String[] csvRow(@NotNull TimeUnit unit) {
+        List<String> row = new ArrayList<>(List.of(loc(), String.valueOf(visits()), String.valueOf(total(unit)), String.valueOf(avg(unit)), String.valueOf(minTime(unit)), String.valueOf(maxTime(unit)), path(), String.valueOf(self(unit))));
+        if (sampling.isEnabled()) {
+            row.add(samplingPercent());
+        }
+        if (histogram != null) {
+            row.addAll(List.of(String.valueOf(percentile(50.0D, unit)), String.valueOf(percentile(90.0D, unit)), String.valueOf(percentile(99.0D, unit)), String.valueOf(percentile(99.9D, unit))));
+        }
+        return row.toArray(String[]::new);
     }
 
     @ApiStatus.Internal
     @NotNull
     public static String headerHTML() {
+        return headerHTML(false, false);
+    }
+
+    /**
+     * @param percentiles whether to include the percentile columns written by {@link #dataHTML(String)} for
+     *                    locations with a {@link #histogram()}.
+     * @param sampled     whether to include the sampling column written by {@link #dataHTML(String)} for
+     *                    locations with {@linkplain Sampling#isEnabled() sampling}.
+     * @since 2.1.0
+     */
+    @ApiStatus.Internal
+    @NotNull
+    public static String headerHTML(boolean percentiles, boolean sampled) {
         return "<tr>" +
                 "<th>Location</th>" +
                 "<th>Visits</th>" +
+                (sampled ? "<th>Sampled</th>" : "") +
                 "<th>Avg (<unitabbr>$abbrtimeunit</unitabbr>)</th>" +
                 "<th>Min (<unitabbr>$abbrtimeunit</unitabbr>)</th>" +
                 "<th>Max (<unitabbr>$abbrtimeunit</unitabbr>)</th>" +
+                (percentiles ? "<th>P50 (<unitabbr>$abbrtimeunit</unitabbr>)</th>" +
+                        "<th>P90 (<unitabbr>$abbrtimeunit</unitabbr>)</th>" +
+                        "<th>P99 (<unitabbr>$abbrtimeunit</unitabbr>)</th>" +
+                        "<th>P99.9 (<unitabbr>$abbrtimeunit</unitabbr>)</th>" : "") +
                 "<th>Runtime (<unitabbr>$abbrtimeunit</unitabbr>)</th>" +
+                "<th>Self (<unitabbr>$abbrtimeunit</unitabbr>)</th>" +
                 "<th>% of Runtime</th>" +
                 "<th>Full Path</th>" +
                 "</tr>";
@@ -155,29 +1145,83 @@ public class LocData {
     @ApiStatus.Internal
     @NotNull
     public String dataHTML(String percent) {
-        String unit = UnitUtil.abbreviate(timeUnit);
-        return "<tr>" +
-                "<th>%s</th>".formatted(loc()) +
-                "<td>%s</td>".formatted(visits()) +
-                "<td><duration unit=\"%s\" original=\"%s\">%s</duration></td>".formatted(unit, avg(), avg()) +
-                "<td><duration unit=\"%s\" original=\"%s\">%s</duration></td>".formatted(unit, minTime, minTime) +
-                "<td><duration unit=\"%s\" original=\"%s\">%s</duration></td>".formatted(unit, maxTime, maxTime) +
-                "<td><duration unit=\"%s\" original=\"%s\">%s</duration></td>".formatted(unit, total, total) +
-                "<td>%s</td>".formatted(percent + "%") +
-                "<td>%s</td>".formatted(path()) +
-                "</tr>";
+        return dataHTML(percent, timeUnit);
+    }
+
+    /**
+     * @param timeUnit the unit to write times in.
+     * @since 2.1.0
+     */
+    @ApiStatus.Internal
+    @NotNull
+    public String dataHTML(String percent, @NotNull TimeUnit timeUnit) {
+        final StringBuilder sb = new StringBuilder(512);
+        try {
+            writeHTML(sb, percent, timeUnit);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the row returned by {@link #dataHTML(String, TimeUnit)} to {@code out}, without building it first.
+     *
+     * @since 2.1.0
+     */
+    @ApiStatus.Internal
+    public void writeHTML(@NotNull Appendable out, @NotNull String percent, @NotNull TimeUnit timeUnit) throws IOException {
+        final String unit = UnitUtil.abbreviate(timeUnit);
+        out.append("<tr><th>").append(loc()).append("</th>");
+        cell(out, Long.toString(visits()));
+        if (sampling.isEnabled()) {
+            cell(out, samplingPercent());
+        }
+        durationCell(out, unit, avg(timeUnit));
+        durationCell(out, unit, minTime(timeUnit));
+        durationCell(out, unit, maxTime(timeUnit));
+        if (histogram != null) {
+            durationCell(out, unit, percentile(50.0D, timeUnit));
+            durationCell(out, unit, percentile(90.0D, timeUnit));
+            durationCell(out, unit, percentile(99.0D, timeUnit));
+            durationCell(out, unit, percentile(99.9D, timeUnit));
+        }
+        durationCell(out, unit, total(timeUnit));
+        durationCell(out, unit, self(timeUnit));
+        out.append("<td>").append(percent).append("%</td>");
+        cell(out, path());
+        out.append("</tr>");
     }
 
     @ApiStatus.Internal
     @NotNull
     public static String headerMD() {
+        return headerMD(false, false);
+    }
+
+    /**
+     * @param percentiles whether to include the percentile columns written by {@link #dataMD(String)} for
+     *                    locations with a {@link #histogram()}.
+     * @param sampled     whether to include the sampling column written by {@link #dataMD(String)} for
+     *                    locations with {@linkplain Sampling#isEnabled() sampling}.
+     * @since 2.1.0
+     */
+    @ApiStatus.Internal
+    @NotNull
+    public static String headerMD(boolean percentiles, boolean sampled) {
         return "<tr>" +
                 "<th>Location</th>" +
                 "<th>Visits</th>" +
+                (sampled ? "<th>Sampled</th>" : "") +
                 "<th>Avg ($abbrtimeunit)</th>" +
                 "<th>Min ($abbrtimeunit)</th>" +
                 "<th>Max ($abbrtimeunit)</th>" +
+                (percentiles ? "<th>P50 ($abbrtimeunit)</th>" +
+                        "<th>P90 ($abbrtimeunit)</th>" +
+                        "<th>P99 ($abbrtimeunit)</th>" +
+                        "<th>P99.9 ($abbrtimeunit)</th>" : "") +
                 "<th>Runtime ($abbrtimeunit)</th>" +
+                "<th>Self ($abbrtimeunit)</th>" +
                 "<th>% of Runtime</th>" +
                 "<th>Full Path</th>" +
                 "</tr>";
@@ -186,15 +1230,61 @@ public class LocData {
     @ApiStatus.Internal
     @NotNull
     public String dataMD(String percent) {
-        return "<tr>" +
-                "<th>%s</th>".formatted(loc()) +
-                "<td>%s</td>".formatted(visits()) +
-                "<td>%s</td>".formatted(avg()) +
-                "<td>%s</td>".formatted(minTime) +
-                "<td>%s</td>".formatted(maxTime) +
-                "<td>%s</td>".formatted(total) +
-                "<td>%s</td>".formatted(percent + "%") +
-                "<td>%s</td>".formatted(path()) +
-                "</tr>";
+        return dataMD(percent, timeUnit);
+    }
+
+    /**
+     * @param timeUnit the unit to write times in.
+     * @since 2.1.0
+     */
+    @ApiStatus.Internal
+    @NotNull
+    public String dataMD(String percent, @NotNull TimeUnit timeUnit) {
+        final StringBuilder sb = new StringBuilder(256);
+        try {
+            writeMD(sb, percent, timeUnit);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the row returned by {@link #dataMD(String, TimeUnit)} to {@code out}, without building it first.
+     *
+     * @since 2.1.0
+     */
+    @ApiStatus.Internal
+    public void writeMD(@NotNull Appendable out, @NotNull String percent, @NotNull TimeUnit timeUnit) throws IOException {
+        out.append("<tr><th>").append(loc()).append("</th>");
+        cell(out, Long.toString(visits()));
+        if (sampling.isEnabled()) {
+            cell(out, samplingPercent());
+        }
+        cell(out, Long.toString(avg(timeUnit)));
+        cell(out, Long.toString(minTime(timeUnit)));
+        cell(out, Long.toString(maxTime(timeUnit)));
+        if (histogram != null) {
+            cell(out, Long.toString(percentile(50.0D, timeUnit)));
+            cell(out, Long.toString(percentile(90.0D, timeUnit)));
+            cell(out, Long.toString(percentile(99.0D, timeUnit)));
+            cell(out, Long.toString(percentile(99.9D, timeUnit)));
+        }
+        cell(out, Long.toString(total(timeUnit)));
+        cell(out, Long.toString(self(timeUnit)));
+        out.append("<td>").append(percent).append("%</td>");
+        cell(out, path());
+        out.append("</tr>");
+    }
+
+    private static void cell(@NotNull Appendable out, @NotNull String value) throws IOException {
+        out.append("<td>").append(value).append("</td>");
+    }
+
+    private static void durationCell(@NotNull Appendable out, @NotNull String unit, long value) throws IOException {
+        final String text = Long.toString(value);
+        out.append("<td><duration unit=\"").append(unit)
+                .append("\" original=\"").append(text).append("\">")
+                .append(text).append("</duration></td>");
     }
 }
\ No newline at end of file
@@ -21,18 +21,85 @@
 
 package dev.tori.runtimeprofiler;
 
+import dev.tori.runtimeprofiler.clock.Clock;
 import dev.tori.runtimeprofiler.config.Config;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.TimeUnit;
 
 /**
  * A factory class for creating instances of {@link LocData}.
  *
+ * @param timeUnit   the timing precision of created {@link LocData}.
+ * @param histograms whether created {@link LocData} record a latency {@link Histogram}; since 2.1.0.
+ * @param sampling   which visits of created {@link LocData} are timed; since 2.1.0.
+ * @param clock      the clock that times created {@link LocData}; since 2.1.0.
+ * @param collapseRecursion whether a location pushed while it is already on the stack re-enters the active
+ *                          node instead of creating a deeper one, folding {@code a/b/a/b} into {@code a/b};
+ *                          since 2.1.0.
+ * @param flightRecorder    whether each push/pop is emitted as a {@link dev.tori.runtimeprofiler.jfr.ScopeEvent
+ *                          JDK Flight Recorder event}
+ *                          while a recording enables it; since 2.1.0.
  * @author <a href="https://github.com/7orivorian">7orivorian</a>
  * @since 1.0.0
  */
-public record LocDataFactory(@NotNull TimeUnit timeUnit) {
+public record LocDataFactory(@NotNull TimeUnit timeUnit, boolean histograms, @NotNull Sampling sampling, @NotNull Clock clock,
+                             boolean collapseRecursion, boolean flightRecorder) {
+
+    /**
+     * Creates a factory for {@link LocData} that times every visit with the {@linkplain Clock#system() system clock}
+     * and records no latency histograms.
+     */
+    public LocDataFactory(@NotNull TimeUnit timeUnit) {
+        this(timeUnit, false, Sampling.NONE, Clock.system(), false, false);
+    }
+
+    /**
+     * @return a copy of this factory that does or does not record latency histograms, each about 15 KiB per location.
+     * @see Histogram
+     * @since 2.1.0
+     */
+    @NotNull
+    public LocDataFactory withHistograms(boolean histograms) {
+        return new LocDataFactory(timeUnit, histograms, sampling, clock, collapseRecursion, flightRecorder);
+    }
+
+    /**
+     * @return a copy of this factory with the given sampling policy.
+     * @since 2.1.0
+     */
+    @NotNull
+    public LocDataFactory withSampling(@NotNull Sampling sampling) {
+        return new LocDataFactory(timeUnit, histograms, sampling, clock, collapseRecursion, flightRecorder);
+    }
+
+    /**
+     * @return a copy of this factory that times with the given clock.
+     * @since 2.1.0
+     */
+    @NotNull
+    public LocDataFactory withClock(@NotNull Clock clock) {
+        return new LocDataFactory(timeUnit, histograms, sampling, clock, collapseRecursion, flightRecorder);
+    }
+
+    /**
+     * @return a copy of this factory that does or does not collapse recursive pushes.
+     * @since 2.1.0
+     */
+    @NotNull
+    public LocDataFactory withRecursionCollapsed(boolean collapseRecursion) {
+        return new LocDataFactory(timeUnit, histograms, sampling, clock, collapseRecursion, flightRecorder);
+    }
+
+    /**
+     * @return a copy of this factory that does or does not emit {@link dev.tori.runtimeprofiler.jfr.ScopeEvent Flight Recorder events}.
+     * @since 2.1.0
+     */
+    @NotNull
+    public LocDataFactory withFlightRecorder(boolean flightRecorder) {
+        return new LocDataFactory(timeUnit, histograms, sampling, clock, collapseRecursion, flightRecorder);
+    }
 
     /**
      * Creates a new instance of {@link LocData} based on the provided path. The path is processed to determine the
@@ -50,6 +117,19 @@ public record LocDataFactory(@NotNull TimeUnit timeUnit) {
         // loc includes any leading separator to make clear at a glance
         // that it's a sub-location in the event of duplicate loc names.
         String loc = (i == -1) ? path : path.substring(i);
-        return new LocData(path, loc, timeUnit, depth);
+        return new LocData(path, loc, depth, this);
+    }
+
+    /**
+     * Creates a new call tree node for the given {@code location} beneath {@code parent}.
+     *
+     * @param parent   the parent node, or {@code null} for a top-level node.
+     * @param location the location of the new node, or {@code null} for a tree's sentinel.
+     * @return a new instance of {@link LocData}.
+     * @since 2.1.0
+     */
+    @NotNull
+    LocData create(@Nullable LocData parent, @Nullable Location location) {
+        return new LocData(parent, location, this);
     }
 }
\ No newline at end of file
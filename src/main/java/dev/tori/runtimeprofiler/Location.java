@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import dev.tori.runtimeprofiler.config.Config;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pre-registered, reusable location handle.
+ * <p>
+ * Pushing a {@link Location} instead of a {@link String} skips name validation, path concatenation and
+ * full path hashing, so the steady-state push/pop cycle does not allocate.
+ * Locations are interned, meaning two calls to {@link #of(String)} with the same name return the same instance.
+ * The intern table only holds them weakly: a location is forgotten once neither a handle nor a profiler's call tree
+ * references it, so pushing dynamic names doesn't grow the table beyond the locations currently in use.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @see IProfiler#location(String)
+ * @since 2.1.0
+ */
+public final class Location {
+
+    private static final ConcurrentMap<String, Interned> INTERNED = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Location> COLLECTED = new ReferenceQueue<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private final @NotNull String name;
+    private final int id;
+
+    @Contract(pure = true)
+    private Location(@NotNull String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * Returns the interned {@link Location} with the given {@code name}, registering it if necessary.
+     *
+     * @param name the name of the location.
+     * @return the interned {@link Location}.
+     * @throws IllegalArgumentException if the given {@code name} contains the
+     *                                  {@linkplain Config#pathSeparator() path separator}.
+     */
+    @NotNull
+    public static Location of(@NotNull String name) {
+        final Interned interned = INTERNED.get(name);
+        final Location location = (interned == null) ? null : interned.get();
+        if (location != null) {
+            return location;
+        }
+        checkName(name);
+        return intern(name);
+    }
+
+    @NotNull
+    private static Location intern(@NotNull String name) {
+        Reference<? extends Location> collected;
+        while ((collected = COLLECTED.poll()) != null) {
+            INTERNED.remove(((Interned) collected).name, collected);
+        }
+        while (true) {
+            final Location created = new Location(name, NEXT_ID.getAndIncrement());
+            final Location location = INTERNED.compute(name, (key, existing) ->
+                    (existing != null && existing.get() != null) ? existing : new Interned(created)).get();
+            Reference.reachabilityFence(created);
+            // null if the existing location was collected in the meantime
+            if (location != null) {
+                return location;
+            }
+        }
+    }
+
+    /**
+     * Creates a location that is not interned, so that it is only ever equal to itself, e.g. for nodes that belong
+     * to a single call tree and must not collide with a pushed location.
+     *
+     * @param name the name of the location.
+     * @return a new {@link Location}.
+     */
+    @NotNull
+    static Location unique(@NotNull String name) {
+        return new Location(name, NEXT_ID.getAndIncrement());
+    }
+
+    /**
+     * @param name the location name to check
+     * @throws IllegalArgumentException if the given {@code name} contains the
+     *                                  {@linkplain Config#pathSeparator() path separator}.
+     */
+    @ApiStatus.Internal
+    static void checkName(@NotNull String name) {
+        final String pathSeparator = Config.pathSeparator();
+        if (name.contains(pathSeparator)) {
+            throw new IllegalArgumentException("Invalid path: " + name + ". Cannot contain path separator '" + pathSeparator.translateEscapes() + "'!");
+        }
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the id of this location, used to hash it. Ids are not reused.
+     */
+    @ApiStatus.Internal
+    @Contract(pure = true)
+    public int id() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static final class Interned extends WeakReference<Location> {
+
+        private final @NotNull String name;
+
+        Interned(@NotNull Location location) {
+            super(location, COLLECTED);
+            this.name = location.name;
+        }
+    }
+}
\ No newline at end of file
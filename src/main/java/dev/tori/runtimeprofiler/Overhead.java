@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A report of the profiler's own cost.
+ *
+ * @param calls          the number of push and pop calls recorded.
+ * @param estimatedNanos the estimated time the profiler added to the root's runtime, in nanoseconds, or {@code 0}
+ *                       if the profiler was not {@code calibrated}.
+ * @param nodes          the number of {@link LocData} in the call tree.
+ * @param estimatedBytes a rough estimate of the heap retained by the call tree.
+ * @param compensated    whether the estimated overhead was subtracted from each node's time.
+ * @param calibrated     whether the cost of a push/pop pair was measured, so that the time could be estimated.
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @see Calibration
+ * @since 2.1.0
+ */
+public record Overhead(long calls, long estimatedNanos, int nodes, long estimatedBytes, boolean compensated,
+                       boolean calibrated) {
+
+    /**
+     * Computes the overhead report of the given {@code profiler}, using its {@linkplain IProfiler#getCalibration()
+     * calibration} to estimate the time spent. Nothing is measured; without a calibration, the time is not estimated.
+     */
+    @NotNull
+    public static Overhead of(@NotNull IProfiler profiler) {
+        long pairs = 0L;
+        int nodes = 0;
+        long bytes = 0L;
+        for (Map.Entry<String, LocData> entry : profiler.getEntries()) {
+            final LocData data = entry.getValue();
+            if (data.depth() > 1) {
+                pairs += data.visits();
+            }
+            nodes++;
+            bytes += data.estimatedBytes();
+        }
+        return of(profiler, pairs, nodes, bytes);
+    }
+
+    /**
+     * Computes the overhead report of the given {@code profiler} from totals already gathered over its
+     * {@linkplain IProfiler#getEntries() entries}, e.g. while rendering them, without walking them again.
+     *
+     * @param pairs the number of push/pop pairs, i.e. the visits of every location below {@code root}.
+     * @param nodes the number of entries.
+     * @param bytes the sum of the entries' {@linkplain LocData#estimatedBytes() estimated bytes}.
+     * @see #of(IProfiler)
+     */
+    @NotNull
+    public static Overhead of(@NotNull IProfiler profiler, long pairs, int nodes, long bytes) {
+        final Calibration calibration = profiler.getCalibration();
+        final long pairNanos = (calibration == null) ? 0L : calibration.pairNanos();
+        return new Overhead(2L * pairs, pairs * pairNanos, nodes, bytes, profiler.isOverheadCompensated(),
+                calibration != null);
+    }
+
+    /**
+     * @return the estimated time the profiler added to the root's runtime, in the given {@code unit}.
+     */
+    public long estimatedTime(@NotNull TimeUnit unit) {
+        return unit.convert(estimatedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return a one-line, human-readable summary of this report.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public String summary(@NotNull TimeUnit unit) {
+        final String time = calibrated
+                ? String.format(Locale.ROOT, "~%d %s estimated%s", estimatedTime(unit),
+                unit.name().toLowerCase(Locale.ROOT), compensated ? " (subtracted)" : "")
+                : "time not calibrated";
+        return String.format(Locale.ROOT, "Profiler overhead: %d calls, %s, %d nodes, ~%.1f KiB",
+                calls,
+                time,
+                nodes,
+                estimatedBytes / 1024.0D
+        );
+    }
+}
\ No newline at end of file
@@ -27,7 +27,8 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.*;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -39,15 +40,18 @@ import java.util.concurrent.TimeUnit;
 public class Profiler implements IProfiler {
 
     private final String label;
-    private final LinkedList<String> path;
-    private final LinkedHashMap<String, LocData> map;
     private final LocDataFactory factory;
-    private final int maxDepth;
 
+    /**
+     * @since 2.1.0
+     */
+    private final CallStack stack;
     private boolean started;
-    private int depth;
-    private String fullPath;
-    private LocData currentLocData;
+
+    /**
+     * @since 2.1.0
+     */
+    private boolean compensated;
 
     /**
      * Constructs a new profiler with the given {@code label} and the
@@ -78,18 +82,26 @@ public class Profiler implements IProfiler {
      * @since 1.2.0
      */
     public Profiler(@NotNull String label, @NotNull TimeUnit precision, int maxDepth) {
+        this(label, new LocDataFactory(precision), maxDepth);
+    }
+
+    /**
+     * Constructs a new profiler with the given {@code label} whose {@link LocData} are created by {@code factory}.
+     *
+     * @param label    The label for this profiler.
+     * @param factory  The factory, which determines the timing precision and which statistics are recorded.
+     * @param maxDepth The maximum path depth of this profiler; must be greater than {@code 0}.
+     * @since 2.1.0
+     */
+    public Profiler(@NotNull String label, @NotNull LocDataFactory factory, int maxDepth) {
         if (maxDepth <= 0) {
             throw new IllegalArgumentException("maxDepth must be greater than zero");
         }
         this.label = label;
-        this.path = new LinkedList<>();
-        this.map = new LinkedHashMap<>();
-        this.factory = new LocDataFactory(precision);
-        this.maxDepth = maxDepth;
+        this.factory = factory;
+        this.stack = new CallStack(factory, maxDepth);
         this.started = false;
-        this.depth = 0;
-        this.fullPath = "";
-        this.currentLocData = null;
+        this.compensated = false;
     }
 
     /**
@@ -102,11 +114,9 @@ public class Profiler implements IProfiler {
         if (started) {
             throw new IllegalStateException("Profiler already started");
         }
-        map.clear();
-        path.clear();
-        fullPath = "";
+        stack.reset();
         started = true;
-        push("root");
+        stack.enter(CallTree.ROOT);
     }
 
     /**
@@ -120,8 +130,9 @@ public class Profiler implements IProfiler {
         checkStarted();
         final LocData data = pop();
         started = false;
-        if (!fullPath.isEmpty()) {
-            throw new IllegalStateException("Profiler tick ended before path was fully popped (remainder %s). Mismatched push/pop?".formatted(fullPath));
+        compensate();
+        if (stack.depth() != 0) {
+            throw new IllegalStateException("Profiler tick ended before path was fully popped (remainder %s). Mismatched push/pop?".formatted(getFullPath()));
         }
         return data;
     }
@@ -137,40 +148,53 @@ public class Profiler implements IProfiler {
     @Override
     public void push(@NotNull String location) {
         checkStarted();
-        checkLocationName(location);
-        if (!fullPath.isEmpty()) {
-            fullPath += Config.pathSeparator();
-        }
-        if (++depth > maxDepth) {
-            throw new IllegalStateException("Maximum path depth of %s exceeded".formatted(maxDepth));
-        }
-        fullPath += location;
-        path.push(fullPath);
-        map.computeIfAbsent(fullPath, key -> factory.create(fullPath, depth)).push();
+        push(location(location));
+    }
+
+    /**
+     * Pushes the given pre-registered location to the profiler stack.
+     * <p>
+     * The child is looked up in the current node by {@link Location} identity, so the cost does not
+     * depend on the current depth, and no allocation occurs once the location has been visited.
+     *
+     * @param location the location to push to.
+     * @throws IllegalStateException if this profiler is not {@linkplain #started}.
+     * @since 2.1.0
+     */
+    @Override
+    public void push(@NotNull Location location) {
+        checkStarted();
+        stack.push(location);
+    }
+
+    /**
+     * Pushes the given location and returns a {@link Scope} that pops it when closed.
+     * <p>
+     * Scopes are reused per depth, so no allocation occurs once the location has been visited.
+     *
+     * @param location the location to push to.
+     * @return the reusable scope of the new depth.
+     * @throws IllegalStateException if this profiler is not {@linkplain #started}.
+     * @since 2.1.0
+     */
+    @NotNull
+    @Override
+    public Scope scope(@NotNull Location location) {
+        checkStarted();
+        return stack.scope(location);
     }
 
     /**
      * Pops the current location from the stack.
      *
-     * @return the popped {@link LocData}.
+     * @return the popped {@link LocData}, or an empty node if its push was ignored while {@linkplain #isEnabled()
+     * disabled}.
      * @throws IllegalStateException if this profiler is not {@linkplain #started} OR the stack is empty.
      */
     @Override
     public LocData pop() {
         checkStarted();
-        if (path.isEmpty()) {
-            throw new IllegalStateException("Profiler already popped. Mismatched push/pop?");
-        }
-        final LocData current = getCurrentLocData();
-        if (current == null) {
-            throw new IllegalStateException("Current LocData is null. Likely due to a mismatched push/pop");
-        }
-        depth--;
-        current.pop();
-        path.pop();
-        fullPath = path.isEmpty() ? "" : path.getFirst();
-        currentLocData = null;
-        return current;
+        return stack.pop();
     }
 
     /**
@@ -186,7 +210,7 @@ public class Profiler implements IProfiler {
      */
     @Override
     public LocData swapIf(@NotNull String location) {
-        if (depth == 1) {
+        if (stack.depth() == 1) {
             push(location);
             return null;
         }
@@ -209,9 +233,44 @@ public class Profiler implements IProfiler {
         return factory.timeUnit();
     }
 
+    /**
+     * @return a live, unmodifiable view of every {@link LocData} in depth-first order, keyed by full path.
+     */
     @Override
     public Set<Map.Entry<String, LocData>> getEntries() {
-        return Collections.unmodifiableSet(map.entrySet());
+        return stack.tree().entries();
+    }
+
+    /**
+     * Captures an immutable copy of the current statistics without stopping this profiler.
+     * Visits in progress, including {@code root}, are recorded as if they ended now.
+     * <p>
+     * Like every other method, this must be called from the thread that records into this profiler.
+     *
+     * @return a new {@link Snapshot}.
+     * @since 2.1.0
+     */
+    @NotNull
+    @Override
+    public Snapshot snapshot() {
+        return new Snapshot(label, getTimingPrecision(), stack.snapshot(), factory, compensated);
+    }
+
+    /**
+     * Captures a {@linkplain #snapshot() snapshot} and discards the current statistics while visits in progress
+     * continue, so that the next snapshot, or the results of {@link #stop()}, only cover the time after this one.
+     *
+     * @return a new {@link Snapshot}.
+     * @throws IllegalStateException if this profiler is not {@linkplain #started}.
+     * @since 2.1.0
+     */
+    @NotNull
+    @Override
+    public Snapshot snapshotAndReset() {
+        checkStarted();
+        final Snapshot snapshot = snapshot();
+        stack.resetStats();
+        return snapshot;
     }
 
     /**
@@ -220,42 +279,128 @@ public class Profiler implements IProfiler {
      */
     @Override
     public long getTotalRuntime() {
+        return getTotalRuntime(getTimingPrecision());
+    }
+
+    /**
+     * @return the total runtime of the root {@link LocData}, in the given {@code unit}.
+     * @throws IllegalStateException if the profiler is {@link #started}.
+     * @since 2.1.0
+     */
+    @Override
+    public long getTotalRuntime(@NotNull TimeUnit unit) {
         if (started) {
             throw new IllegalStateException("Profiler is still running");
         }
-        return map.get("root").total();
+        final LocData root = stack.tree().top(CallTree.ROOT);
+        if (root == null) {
+            throw new IllegalStateException("Profiler was never started");
+        }
+        return root.total(unit);
+    }
+
+    /**
+     * Returns the measured overhead of this profiler. It is only measured by {@link #calibrate()}, or on first use
+     * once {@linkplain #setOverheadCompensation(boolean) compensation} is enabled, since measuring takes a few tens
+     * of milliseconds on the calling thread.
+     *
+     * @return the calibration, or {@code null} if it was not measured yet.
+     * @see Calibration#of(LocDataFactory)
+     * @since 2.1.0
+     */
+    @Nullable
+    @Override
+    public Calibration getCalibration() {
+        return compensated ? Calibration.of(factory) : Calibration.cached(factory);
+    }
+
+    /**
+     * Measures the overhead of this profiler, or re-measures it, e.g. once the JIT has warmed up.
+     *
+     * @return the new {@link Calibration}.
+     * @since 2.1.0
+     */
+    @NotNull
+    public Calibration calibrate() {
+        final Calibration calibration = Calibration.measure(factory);
+        if (compensated) {
+            compensate();
+        }
+        return calibration;
+    }
+
+    /**
+     * Sets whether the {@linkplain #getCalibration() measured overhead} is subtracted from each node's time.
+     * <p>
+     * Compensation is applied when the profiler is stopped; toggling it on a stopped profiler updates the
+     * existing results.
+     *
+     * @param compensated {@code true} to subtract the estimated overhead.
+     * @see LocData#overheadNanos()
+     * @since 2.1.0
+     */
+    public void setOverheadCompensation(boolean compensated) {
+        final boolean cleared = this.compensated && !compensated;
+        this.compensated = compensated;
+        if (cleared && !started) {
+            stack.tree().compensate(Calibration.NONE);
+        }
+        compensate();
+    }
+
+    /**
+     * Sets whether pushes are recorded. While disabled, pushes and their pops are ignored, so each costs a
+     * single check; visits already in progress are still recorded. May be called from any thread.
+     *
+     * @param enabled {@code false} to stop recording new visits.
+     * @since 2.1.0
+     */
+    @Override
+    public void setEnabled(boolean enabled) {
+        stack.setEnabled(enabled);
+    }
+
+    /**
+     * @return {@code true} if pushes are recorded.
+     * @since 2.1.0
+     */
+    @Override
+    public boolean isEnabled() {
+        return stack.isEnabled();
+    }
+
+    /**
+     * @return {@code true} if the estimated overhead is subtracted from each node's time.
+     * @since 2.1.0
+     */
+    @Override
+    public boolean isOverheadCompensated() {
+        return compensated;
     }
 
     public String getFullPath() {
-        return fullPath;
+        return stack.fullPath();
     }
 
     @Nullable
     public LocData getCurrentLocData() {
-        if (currentLocData == null) {
-            currentLocData = map.get(fullPath);
-        }
-        return currentLocData;
+        return stack.current();
     }
 
     /**
-     * @return the current path {@linkplain #depth}.
+     * @return the current path depth.
      * @since 1.2.0
      */
     public int getCurrentDepth() {
-        return depth;
+        return stack.depth();
     }
 
     /**
-     * @param location the location to check
-     * @throws IllegalArgumentException if the given {@code location} contains the
-     *                                  {@linkplain Config#pathSeparator() path separator}.
+     * Applies the overhead compensation of a stopped profiler, if enabled.
      */
-    @ApiStatus.Internal
-    private void checkLocationName(@NotNull String location) {
-        final String pathSeparator = Config.pathSeparator();
-        if (location.contains(pathSeparator)) {
-            throw new IllegalArgumentException("Invalid path: " + location + ". Cannot contain path separator '" + pathSeparator.translateEscapes() + "'!");
+    private void compensate() {
+        if (!started && compensated) {
+            stack.tree().compensate(Calibration.of(factory));
         }
     }
 
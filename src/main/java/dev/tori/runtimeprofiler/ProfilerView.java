@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A read-only view of another {@link IProfiler} that reports times in a different precision and/or order.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @see IProfiler#withPrecision(TimeUnit)
+ * @see IProfiler#sorted(Comparator)
+ * @since 2.1.0
+ */
+final class ProfilerView implements IProfiler {
+
+    private final @NotNull IProfiler delegate;
+    private final @NotNull TimeUnit precision;
+    private final @Nullable Comparator<? super LocData> order;
+
+    ProfilerView(@NotNull IProfiler delegate, @NotNull TimeUnit precision, @Nullable Comparator<? super LocData> order) {
+        this.delegate = (delegate instanceof ProfilerView view) ? view.delegate : delegate;
+        this.precision = precision;
+        this.order = order;
+    }
+
+    @Override
+    public void start() {
+        throw readOnly();
+    }
+
+    @Override
+    public LocData stop() {
+        throw readOnly();
+    }
+
+    @Override
+    public void push(@NotNull String location) {
+        throw readOnly();
+    }
+
+    @NotNull
+    @Override
+    public Scope scope(@NotNull Location location) {
+        throw readOnly();
+    }
+
+    @Override
+    public LocData pop() {
+        throw readOnly();
+    }
+
+    @Override
+    public LocData swapIf(@NotNull String location) {
+        throw readOnly();
+    }
+
+    @Override
+    public String getLabel() {
+        return delegate.getLabel();
+    }
+
+    @Override
+    public TimeUnit getTimingPrecision() {
+        return precision;
+    }
+
+    @Override
+    public Set<Map.Entry<String, LocData>> getEntries() {
+        final Set<Map.Entry<String, LocData>> entries = delegate.getEntries();
+        if (order == null) {
+            return entries;
+        }
+        final List<Map.Entry<String, LocData>> sorted = new ArrayList<>(entries);
+        sorted.sort(Map.Entry.comparingByValue(order));
+        return Collections.unmodifiableSet(new LinkedHashSet<>(sorted));
+    }
+
+    @Override
+    public long getTotalRuntime() {
+        return delegate.getTotalRuntime(precision);
+    }
+
+    @Override
+    public long getTotalRuntime(@NotNull TimeUnit unit) {
+        return delegate.getTotalRuntime(unit);
+    }
+
+    @NotNull
+    @Override
+    public IProfiler withPrecision(@NotNull TimeUnit precision) {
+        return new ProfilerView(delegate, precision, order);
+    }
+
+    @NotNull
+    @Override
+    public IProfiler sorted(@NotNull Comparator<? super LocData> order) {
+        return new ProfilerView(delegate, precision, order);
+    }
+
+    @NotNull
+    @Override
+    public Snapshot snapshot() {
+        return delegate.snapshot();
+    }
+
+    @NotNull
+    @Override
+    public Snapshot snapshotAndReset() {
+        throw readOnly();
+    }
+
+    @Nullable
+    @Override
+    public Calibration getCalibration() {
+        return delegate.getCalibration();
+    }
+
+    @Override
+    public boolean isOverheadCompensated() {
+        return delegate.isOverheadCompensated();
+    }
+
+    @NotNull
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Profiler view is read-only");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import dev.tori.runtimeprofiler.config.Config;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Profiles the methods of interface implementations without changing their code.
+ * <pre>{@code
+ * UserService service = Profiling.wrap(UserService.class, new UserServiceImpl(), profiler);
+ * service.find(id); // Recorded as "UserService.find" under the current path
+ * }</pre>
+ * The returned proxy dispatches through a {@link MethodHandle} per method, resolved once per interface along
+ * with its {@link Location}, so a call does not look up names or use reflection, and exceptions are rethrown
+ * unwrapped. {@code equals}, {@code hashCode} and {@code toString} are forwarded without being profiled.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public final class Profiling {
+
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final MethodType DISPATCH_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /**
+     * The dispatchers of each interface's methods, shared by every proxy of the interface.
+     */
+    private static final ClassValue<Map<Method, Dispatcher>> DISPATCHERS = new ClassValue<>() {
+        @Override
+        protected Map<Method, Dispatcher> computeValue(@NotNull Class<?> type) {
+            final Map<Method, Dispatcher> dispatchers = new HashMap<>();
+            for (Method method : type.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                final String name = type.getSimpleName() + "." + method.getName();
+                dispatchers.put(method, new Dispatcher(Location.of(name.replace(Config.pathSeparator(), "_")), handle(method)));
+            }
+            return Map.copyOf(dispatchers);
+        }
+    };
+
+    @Contract(pure = true)
+    private Profiling() {
+    }
+
+    /**
+     * Returns a proxy of {@code type} that records every call to {@code target} in {@code profiler}, as the
+     * {@code <interface name>.<method name>} location under the current path.
+     * <p>
+     * Calls through the proxy throw {@link IllegalStateException} while {@code profiler} is not started.
+     *
+     * @param type     the interface to implement.
+     * @param target   the implementation to forward calls to.
+     * @param profiler the profiler to record into.
+     * @return the profiling proxy.
+     * @throws IllegalArgumentException if {@code type} is not an interface, or is not accessible.
+     */
+    @NotNull
+    public static <T> T wrap(@NotNull Class<T> type, @NotNull T target, @NotNull IProfiler profiler) {
+        if (!type.isInterface()) {
+            throw new IllegalArgumentException(type.getName() + " is not an interface");
+        }
+        final Map<Method, Dispatcher> dispatchers = DISPATCHERS.get(type);
+        final InvocationHandler handler = (proxy, method, args) -> {
+            final Dispatcher dispatcher = dispatchers.get(method);
+            if (dispatcher == null) {
+                // Object methods
+                return dispatch(proxy, target, method, args);
+            }
+            try (Scope scope = profiler.scope(dispatcher.location)) {
+                try {
+                    final Object[] arguments = (args == null) ? NO_ARGS : args;
+                    return (Object) dispatcher.handle.invokeExact((Object) target, arguments);
+                } catch (Throwable t) {
+                    scope.markExceptional();
+                    throw t;
+                }
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object dispatch(@NotNull Object proxy, @NotNull Object target, @NotNull Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> (proxy == args[0]) || target.equals(args[0]);
+            case "hashCode" -> target.hashCode();
+            default -> target.toString();
+        };
+    }
+
+    /**
+     * @return a handle of {@code method} with the type {@code (Object target, Object[] args)Object}.
+     * @throws IllegalArgumentException if {@code method} is not accessible.
+     */
+    @NotNull
+    private static MethodHandle handle(@NotNull Method method) {
+        try {
+            if (!method.trySetAccessible()) {
+                throw new IllegalArgumentException("Cannot access " + method);
+            }
+            return MethodHandles.lookup().unreflect(method)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(DISPATCH_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access " + method, e);
+        }
+    }
+
+    private record Dispatcher(@NotNull Location location, @NotNull MethodHandle handle) {
+    }
+}
\ No newline at end of file
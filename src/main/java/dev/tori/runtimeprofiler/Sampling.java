@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Determines which visits of a location are timed.
+ * <p>
+ * Every visit is counted, but only sampled visits read the clock. Totals of sampled locations are
+ * estimated from the timed visits, see {@link LocData#totalNanos()}.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public final class Sampling {
+
+    /**
+     * Times every visit.
+     */
+    public static final Sampling NONE = new Sampling(1, 1);
+
+    /**
+     * The number of timed visits after which an adaptive policy doubles its interval.
+     */
+    static final int ADAPT_PERIOD = 1024;
+
+    private final int initialInterval;
+    private final int maxInterval;
+
+    @Contract(pure = true)
+    private Sampling(int initialInterval, int maxInterval) {
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval;
+    }
+
+    /**
+     * Times one in every {@code interval} visits of each location, starting with the first.
+     *
+     * @param interval the sampling interval; must be greater than {@code 0}.
+     * @throws IllegalArgumentException if {@code interval} is less than {@code 1}.
+     */
+    @NotNull
+    public static Sampling fixed(int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be greater than zero");
+        }
+        return (interval == 1) ? NONE : new Sampling(interval, interval);
+    }
+
+    /**
+     * Times every visit of a location at first, then doubles the interval every {@value #ADAPT_PERIOD} timed
+     * visits up to {@code maxInterval}, so only frequently visited locations are sampled sparsely.
+     *
+     * @param maxInterval the maximum sampling interval; must be greater than {@code 0}.
+     * @throws IllegalArgumentException if {@code maxInterval} is less than {@code 1}.
+     */
+    @NotNull
+    public static Sampling adaptive(int maxInterval) {
+        if (maxInterval <= 0) {
+            throw new IllegalArgumentException("maxInterval must be greater than zero");
+        }
+        return (maxInterval == 1) ? NONE : new Sampling(1, maxInterval);
+    }
+
+    /**
+     * @return {@code false} if every visit is timed.
+     */
+    @Contract(pure = true)
+    public boolean isEnabled() {
+        return maxInterval > 1;
+    }
+
+    @Contract(pure = true)
+    int initialInterval() {
+        return initialInterval;
+    }
+
+    @Contract(pure = true)
+    int maxInterval() {
+        return maxInterval;
+    }
+
+    @Override
+    public String toString() {
+        if (!isEnabled()) {
+            return "Sampling[none]";
+        }
+        return (initialInterval == maxInterval) ? "Sampling[1/%s]".formatted(maxInterval) : "Sampling[adaptive, max 1/%s]".formatted(maxInterval);
+    }
+}
\ No newline at end of file
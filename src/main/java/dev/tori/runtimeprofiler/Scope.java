@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An open location that is popped when closed, for use with try-with-resources.
+ * <pre>{@code
+ * try (Scope scope = profiler.scope(handle)) {
+ *     // Code to be profiled
+ * }
+ * }</pre>
+ * Closing a scope also pops any location pushed after it that is still open, e.g. because an exception
+ * skipped its {@code pop()}; those visits, and the scope's own, are recorded as
+ * {@linkplain LocData#exceptionalVisits() exceptional}.
+ * <p>
+ * {@code close()} can't otherwise tell that an exception is propagating, so a body that may throw should report
+ * it with {@link #fail(Throwable)}:
+ * <pre>{@code
+ * try (Scope scope = profiler.scope(handle)) {
+ *     try {
+ *         parse(input);
+ *     } catch (ParseException e) {
+ *         throw scope.fail(e);
+ *     }
+ * }
+ * }</pre>
+ * <p>
+ * Scopes are owned by their profiler and reused for every location pushed at the same depth, so opening one
+ * does not allocate. A scope must not be used after it is closed.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @see IProfiler#scope(Location)
+ * @since 2.1.0
+ */
+public final class Scope implements AutoCloseable {
+
+    private final @NotNull CallStack stack;
+    private final int depth;
+    private boolean open;
+    private boolean exceptional;
+
+    Scope(@NotNull CallStack stack, int depth) {
+        this.stack = stack;
+        this.depth = depth;
+    }
+
+    void open() {
+        open = true;
+        exceptional = false;
+    }
+
+    /**
+     * Invalidates this scope without popping, after its stack was reset.
+     */
+    void discard() {
+        open = false;
+    }
+
+    /**
+     * Marks the current visit as having ended with an exception, so it is recorded as
+     * {@linkplain LocData#exceptionalVisits() exceptional} when this scope is closed.
+     */
+    public void markExceptional() {
+        exceptional = true;
+    }
+
+    /**
+     * Marks the current visit as {@linkplain #markExceptional() exceptional} and returns the given throwable, so
+     * it can be rethrown with {@code throw scope.fail(e)}.
+     *
+     * @param throwable the exception leaving this scope.
+     * @param <T>       the type of the exception.
+     * @return {@code throwable}.
+     */
+    public <T extends Throwable> @NotNull T fail(@NotNull T throwable) {
+        exceptional = true;
+        return throwable;
+    }
+
+    /**
+     * @return the depth of this scope's location, or a negative number if its push was ignored because the
+     * profiler was {@linkplain IProfiler#setEnabled(boolean) disabled}.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Pops this scope's location, and any location still open above it. Closing a closed scope has no effect.
+     *
+     * @throws IllegalStateException if this scope's location was already popped by {@link IProfiler#pop()}.
+     */
+    @Override
+    public void close() {
+        if (open) {
+            open = false;
+            stack.close(depth, exceptional);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable copy of a profiler's statistics, taken while it keeps running.
+ * <p>
+ * Visits still in progress when the snapshot was taken are recorded as if they ended at that moment, so
+ * {@link #getTotalRuntime()} is the runtime of {@code root} up to the snapshot.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @see IProfiler#snapshot()
+ * @see IProfiler#snapshotAndReset()
+ * @since 2.1.0
+ */
+public final class Snapshot implements IProfiler {
+
+    private final @NotNull String label;
+    private final @NotNull TimeUnit precision;
+    private final @NotNull CallTree tree;
+    private final @NotNull LocDataFactory factory;
+    private final boolean compensated;
+    private final long timestamp;
+    private volatile boolean uncompensated;
+
+    Snapshot(@NotNull String label, @NotNull TimeUnit precision, @NotNull CallTree tree,
+             @NotNull LocDataFactory factory, boolean compensated) {
+        this.label = label;
+        this.precision = precision;
+        this.tree = tree;
+        this.factory = factory;
+        this.compensated = compensated;
+        this.timestamp = System.currentTimeMillis();
+        // compensated on first read, so that calibrating never delays the profiled thread
+        this.uncompensated = compensated;
+    }
+
+    /**
+     * @return the time this snapshot was taken, in milliseconds since the epoch.
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public void start() {
+        throw readOnly();
+    }
+
+    @Override
+    public LocData stop() {
+        throw readOnly();
+    }
+
+    @Override
+    public void push(@NotNull String location) {
+        throw readOnly();
+    }
+
+    @NotNull
+    @Override
+    public Scope scope(@NotNull Location location) {
+        throw readOnly();
+    }
+
+    @Override
+    public LocData pop() {
+        throw readOnly();
+    }
+
+    @Override
+    public LocData swapIf(@NotNull String location) {
+        throw readOnly();
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public TimeUnit getTimingPrecision() {
+        return precision;
+    }
+
+    /**
+     * @return an unmodifiable view of every {@link LocData} in depth-first order, keyed by full path.
+     */
+    @Override
+    public Set<Map.Entry<String, LocData>> getEntries() {
+        return tree().entries();
+    }
+
+    @Override
+    public long getTotalRuntime() {
+        return getTotalRuntime(precision);
+    }
+
+    /**
+     * @return the runtime of {@code root} up to this snapshot, or {@code 0} if the profiler was never started.
+     */
+    @Override
+    public long getTotalRuntime(@NotNull TimeUnit unit) {
+        final LocData root = tree().top(CallTree.ROOT);
+        return (root == null) ? 0L : root.total(unit);
+    }
+
+    /**
+     * Returns the measured overhead of the profiler this snapshot was taken of. Like the profiler's, it is only
+     * measured on first use if compensation is enabled.
+     *
+     * @return the calibration, or {@code null} if it was not measured yet.
+     * @see Calibration#of(LocDataFactory)
+     */
+    @Nullable
+    @Override
+    public Calibration getCalibration() {
+        return compensated ? Calibration.of(factory) : Calibration.cached(factory);
+    }
+
+    @Override
+    public boolean isOverheadCompensated() {
+        return compensated;
+    }
+
+    /**
+     * @return this snapshot.
+     */
+    @NotNull
+    @Override
+    public Snapshot snapshot() {
+        return this;
+    }
+
+    @NotNull
+    @Override
+    public Snapshot snapshotAndReset() {
+        throw readOnly();
+    }
+
+    @NotNull
+    private CallTree tree() {
+        if (uncompensated) {
+            synchronized (this) {
+                if (uncompensated) {
+                    tree.compensate(Calibration.of(factory));
+                    uncompensated = false;
+                }
+            }
+        }
+        return tree;
+    }
+
+    @NotNull
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Snapshot is read-only");
+    }
+}
\ No newline at end of file
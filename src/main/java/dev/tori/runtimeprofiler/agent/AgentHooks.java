@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.agent;
+
+import dev.tori.runtimeprofiler.IProfiler;
+import dev.tori.runtimeprofiler.Location;
+import dev.tori.runtimeprofiler.Scope;
+import dev.tori.runtimeprofiler.config.Config;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The methods called by instrumented code. Each profiled method is rewritten to the equivalent of
+ * <pre>{@code
+ * Scope scope = AgentHooks.enter(id);
+ * try {
+ *     // Original method body
+ * } catch (Throwable t) {
+ *     AgentHooks.fail(scope);
+ *     throw t;
+ * }
+ * AgentHooks.exit(scope); // before every return
+ * }</pre>
+ * where {@code id} indexes the method's pre-registered {@link Location}, so no names are looked up or
+ * concatenated at runtime. The hooks never throw, so profiling cannot change the behavior of the application.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+@ApiStatus.Internal
+public final class AgentHooks {
+
+    private static final Map<String, Integer> IDS = new HashMap<>();
+    private static volatile Location[] locations = new Location[64];
+    private static volatile @Nullable IProfiler profiler;
+
+    private AgentHooks() {
+    }
+
+    /**
+     * Sets the profiler that instrumented methods record into, or {@code null} to stop recording.
+     */
+    static void install(@Nullable IProfiler profiler) {
+        AgentHooks.profiler = profiler;
+    }
+
+    /**
+     * Registers the location of an instrumented method.
+     *
+     * @param name the location name; occurrences of the {@linkplain Config#pathSeparator() path separator}
+     *             are replaced by underscores.
+     * @return the id passed to {@link #enter(int)}.
+     */
+    static synchronized int register(@NotNull String name) {
+        final String sanitized = name.replace(Config.pathSeparator(), "_");
+        final Integer existing = IDS.get(sanitized);
+        if (existing != null) {
+            return existing;
+        }
+        final int id = IDS.size();
+        Location[] current = locations;
+        if (id == current.length) {
+            current = Arrays.copyOf(current, id * 2);
+        }
+        current[id] = Location.of(sanitized);
+        // republish, so that threads running the instrumented class see the new location
+        locations = current;
+        IDS.put(sanitized, id);
+        return id;
+    }
+
+    /**
+     * Pushes the location with the given {@code id} on the calling thread's stack.
+     *
+     * @return the scope to close when the method returns, or {@code null} if nothing was pushed.
+     */
+    @Nullable
+    public static Scope enter(int id) {
+        final IProfiler current = profiler;
+        if (current == null) {
+            return null;
+        }
+        try {
+            return current.scope(locations[id]);
+        } catch (IllegalStateException e) {
+            // stopped concurrently, or the maximum depth was exceeded
+            return null;
+        }
+    }
+
+    /**
+     * Pops the given {@code scope} after its method returned normally.
+     */
+    public static void exit(@Nullable Scope scope) {
+        if (scope != null) {
+            try {
+                scope.close();
+            } catch (IllegalStateException ignored) {
+                // already popped by uninstrumented code
+            }
+        }
+    }
+
+    /**
+     * Pops the given {@code scope} after its method threw, recording the visit as exceptional.
+     */
+    public static void fail(@Nullable Scope scope) {
+        if (scope != null) {
+            scope.markExceptional();
+            exit(scope);
+        }
+    }
+}
\ No newline at end of file
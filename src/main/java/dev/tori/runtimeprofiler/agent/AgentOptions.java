@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.agent;
+
+import dev.tori.runtimeprofiler.write.OutputWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * The options of the {@linkplain ProfilingAgent java agent}, parsed from its argument string: comma separated
+ * {@code key=value} pairs, whose list values are separated by colons.
+ * <pre>{@code
+ * -javaagent:runtimeprofiler-agent.jar=include=com.acme.**:org.lib.Parser,formats=HTML:FLAMEGRAPH,output=profiles
+ * }</pre>
+ * <ul>
+ *     <li>{@code include}: the classes whose methods are all profiled. {@code *} matches any part of a package
+ *     or class name, {@code **} any number of packages, and {@code ?} a single character. Methods and classes
+ *     annotated with {@link Profiled} are always profiled. Default: none.</li>
+ *     <li>{@code exclude}: the classes never profiled, in the same format. The JDK and this library are
+ *     always excluded. Default: none.</li>
+ *     <li>{@code output}: the directory reports are written to on shutdown, created if needed.
+ *     Default: {@code profiles}.</li>
+ *     <li>{@code formats}: the {@link OutputWriter} reports to write. Default: {@code HTML}.</li>
+ *     <li>{@code label}: the profiler label. Default: {@code agent}.</li>
+ *     <li>{@code precision}: the timing precision, a {@link TimeUnit} name. Default: {@code NANOSECONDS}.</li>
+ *     <li>{@code perThread}: whether to break down each thread under its own node. Default: {@code false}.</li>
+ *     <li>{@code histograms}: whether to record latency percentiles. Default: {@code false}.</li>
+ * </ul>
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+final class AgentOptions {
+
+    private static final String[] EXCLUDED_PREFIXES = {
+            "java/", "javax/", "jdk/", "sun/", "com/sun/", "dev/tori/runtimeprofiler/"
+    };
+
+    private final @Nullable Pattern includes;
+    private final @Nullable Pattern excludes;
+    private final @NotNull Path output;
+    private final @NotNull List<OutputWriter> formats;
+    private final @NotNull String label;
+    private final @NotNull TimeUnit precision;
+    private final boolean perThread;
+    private final boolean histograms;
+
+    private AgentOptions(@Nullable Pattern includes, @Nullable Pattern excludes, @NotNull Path output,
+                         @NotNull List<OutputWriter> formats, @NotNull String label, @NotNull TimeUnit precision,
+                         boolean perThread, boolean histograms) {
+        this.includes = includes;
+        this.excludes = excludes;
+        this.output = output;
+        this.formats = formats;
+        this.label = label;
+        this.precision = precision;
+        this.perThread = perThread;
+        this.histograms = histograms;
+    }
+
+    /**
+     * @param args the agent argument string, or {@code null} for the defaults.
+     * @return the parsed options.
+     * @throws IllegalArgumentException if an option is unknown or has an invalid value.
+     */
+    @NotNull
+    static AgentOptions parse(@Nullable String args) {
+        Pattern includes = null;
+        Pattern excludes = null;
+        Path output = Path.of("profiles");
+        List<OutputWriter> formats = List.of(OutputWriter.HTML);
+        String label = "agent";
+        TimeUnit precision = TimeUnit.NANOSECONDS;
+        boolean perThread = false;
+        boolean histograms = false;
+        if (args != null && !args.isBlank()) {
+            for (String option : args.split(",")) {
+                final int index = option.indexOf('=');
+                if (index < 0) {
+                    throw new IllegalArgumentException("Invalid agent option: " + option + ". Expected key=value");
+                }
+                final String key = option.substring(0, index).trim();
+                final String value = option.substring(index + 1).trim();
+                switch (key) {
+                    case "include" -> includes = globs(value);
+                    case "exclude" -> excludes = globs(value);
+                    case "output" -> output = Path.of(value);
+                    case "formats" -> {
+                        final List<OutputWriter> writers = new ArrayList<>();
+                        for (String format : value.split(":")) {
+                            writers.add(OutputWriter.valueOf(format.trim().toUpperCase(Locale.ROOT)));
+                        }
+                        formats = List.copyOf(writers);
+                    }
+                    case "label" -> label = value;
+                    case "precision" -> precision = TimeUnit.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "perThread" -> perThread = Boolean.parseBoolean(value);
+                    case "histograms" -> histograms = Boolean.parseBoolean(value);
+                    default -> throw new IllegalArgumentException("Unknown agent option: " + key);
+                }
+            }
+        }
+        return new AgentOptions(includes, excludes, output, formats, label, precision, perThread, histograms);
+    }
+
+    /**
+     * @param globs the colon separated class name patterns.
+     * @return a pattern matching any of the given {@code globs}, or {@code null} if there are none.
+     */
+    @Nullable
+    private static Pattern globs(@NotNull String globs) {
+        final StringBuilder regex = new StringBuilder();
+        for (String glob : globs.split(":")) {
+            if (glob.isBlank()) {
+                continue;
+            }
+            if (!regex.isEmpty()) {
+                regex.append('|');
+            }
+            final String trimmed = glob.trim();
+            for (int i = 0; i < trimmed.length(); i++) {
+                final char c = trimmed.charAt(i);
+                if (c == '*' && i + 1 < trimmed.length() && trimmed.charAt(i + 1) == '*') {
+                    regex.append(".*");
+                    i++;
+                } else if (c == '*') {
+                    regex.append("[^.]*");
+                } else if (c == '?') {
+                    regex.append("[^.]");
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+        }
+        return regex.isEmpty() ? null : Pattern.compile(regex.toString());
+    }
+
+    /**
+     * @param internalName the internal name of a class, e.g. {@code com/acme/Parser}.
+     * @return {@code true} if the class must never be profiled.
+     */
+    boolean isExcluded(@NotNull String internalName) {
+        for (String prefix : EXCLUDED_PREFIXES) {
+            if (internalName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return excludes != null && excludes.matcher(internalName.replace('/', '.')).matches();
+    }
+
+    /**
+     * @param internalName the internal name of a class, e.g. {@code com/acme/Parser}.
+     * @return {@code true} if every method of the class is profiled.
+     */
+    boolean isIncluded(@NotNull String internalName) {
+        return includes != null && includes.matcher(internalName.replace('/', '.')).matches();
+    }
+
+    @NotNull
+    Path output() {
+        return output;
+    }
+
+    @NotNull
+    List<OutputWriter> formats() {
+        return formats;
+    }
+
+    @NotNull
+    String label() {
+        return label;
+    }
+
+    @NotNull
+    TimeUnit precision() {
+        return precision;
+    }
+
+    boolean perThread() {
+        return perThread;
+    }
+
+    boolean histograms() {
+        return histograms;
+    }
+}
\ No newline at end of file
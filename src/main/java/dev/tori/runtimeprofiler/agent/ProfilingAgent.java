@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.agent;
+
+import dev.tori.runtimeprofiler.ConcurrentProfiler;
+import dev.tori.runtimeprofiler.IProfiler;
+import dev.tori.runtimeprofiler.LocDataFactory;
+import dev.tori.runtimeprofiler.config.Config;
+import dev.tori.runtimeprofiler.write.OutputWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.Type;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.instrument.Instrumentation;
+import java.lang.instrument.UnmodifiableClassException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A java agent that profiles methods without changing their source code.
+ * <pre>{@code
+ * java -javaagent:runtimeprofiler-2.1.0-agent.jar=include=com.acme.**,formats=HTML:FLAMEGRAPH -jar app.jar
+ * }</pre>
+ * Methods of the {@linkplain AgentOptions included} classes and methods annotated with {@link Profiled} are
+ * rewritten as they are loaded to push and pop their own location. Every thread records into its own call tree
+ * of a {@link ConcurrentProfiler}, which recursion does not deepen, and the reports are written when the JVM
+ * shuts down. Classes that are not profiled are left untouched and cost nothing at runtime.
+ * <p>
+ * The agent can also be attached to a running JVM, in which case the already loaded classes are retransformed.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public final class ProfilingAgent {
+
+    private static volatile @Nullable IProfiler profiler;
+
+    private ProfilingAgent() {
+    }
+
+    /**
+     * Called before the application's {@code main} method when started with {@code -javaagent}.
+     *
+     * @param args the {@linkplain AgentOptions agent options}.
+     * @param inst the JVM instrumentation.
+     */
+    public static void premain(@Nullable String args, @NotNull Instrumentation inst) {
+        install(AgentOptions.parse(args), inst, false);
+    }
+
+    /**
+     * Called when attached to a running JVM.
+     *
+     * @param args the {@linkplain AgentOptions agent options}.
+     * @param inst the JVM instrumentation.
+     */
+    public static void agentmain(@Nullable String args, @NotNull Instrumentation inst) {
+        install(AgentOptions.parse(args), inst, true);
+    }
+
+    /**
+     * @return the profiler of the agent, e.g. to export snapshots while running, or {@code null} if the agent
+     * is not installed.
+     */
+    @Nullable
+    public static IProfiler profiler() {
+        return profiler;
+    }
+
+    private static synchronized void install(@NotNull AgentOptions options, @NotNull Instrumentation inst, boolean attached) {
+        if (profiler != null) {
+            throw new IllegalStateException("Agent already installed");
+        }
+        final LocDataFactory factory = new LocDataFactory(options.precision())
+                .withHistograms(options.histograms())
+                .withRecursionCollapsed(true);
+        final ConcurrentProfiler agentProfiler = new ConcurrentProfiler(options.label(), factory, Config.defaultMaxDepth(), options.perThread());
+        agentProfiler.start();
+        profiler = agentProfiler;
+        AgentHooks.install(agentProfiler);
+
+        final ProfilingTransformer transformer = new ProfilingTransformer(options);
+        inst.addTransformer(transformer, attached);
+        if (attached) {
+            retransformLoaded(options, inst);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> export(agentProfiler, options), "RuntimeProfiler-agent"));
+    }
+
+    /**
+     * Retransforms the loaded classes that are included or contain a {@link Profiled} method.
+     */
+    private static void retransformLoaded(@NotNull AgentOptions options, @NotNull Instrumentation inst) {
+        final List<Class<?>> classes = new ArrayList<>();
+        for (Class<?> type : inst.getAllLoadedClasses()) {
+            final String internalName = type.getName().replace('.', '/');
+            if (!inst.isModifiableClass(type) || type.isArray() || options.isExcluded(internalName)) {
+                continue;
+            }
+            if (options.isIncluded(internalName) || declaresProfiled(type)) {
+                classes.add(type);
+            }
+        }
+        if (!classes.isEmpty()) {
+            try {
+                inst.retransformClasses(classes.toArray(new Class<?>[0]));
+            } catch (UnmodifiableClassException e) {
+                System.err.println("[RuntimeProfiler] Failed to retransform loaded classes: " + e);
+            }
+        }
+    }
+
+    /**
+     * {@link Profiled} is not retained at runtime, so its presence is checked in the class file.
+     */
+    private static boolean declaresProfiled(@NotNull Class<?> type) {
+        final ClassLoader loader = type.getClassLoader();
+        if (loader == null) {
+            return false;
+        }
+        try (InputStream in = loader.getResourceAsStream(type.getName().replace('.', '/') + ".class")) {
+            if (in == null) {
+                return false;
+            }
+            final String bytes = new String(in.readAllBytes(), StandardCharsets.ISO_8859_1);
+            return bytes.contains(Type.getDescriptor(Profiled.class));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void export(@NotNull ConcurrentProfiler agentProfiler, @NotNull AgentOptions options) {
+        AgentHooks.install(null);
+        try {
+            agentProfiler.stop();
+            Files.createDirectories(options.output());
+            for (OutputWriter writer : options.formats()) {
+                writer.writeToPath(agentProfiler, options.output());
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[RuntimeProfiler] Failed to export the agent profile: " + e);
+        }
+    }
+}
\ No newline at end of file
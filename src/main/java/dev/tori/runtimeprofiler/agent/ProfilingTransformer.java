@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.agent;
+
+import dev.tori.runtimeprofiler.Scope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.AdviceAdapter;
+import org.objectweb.asm.commons.Method;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.nio.charset.StandardCharsets;
+import java.security.ProtectionDomain;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Inserts {@link AgentHooks} calls around the methods of included and {@link Profiled} classes.
+ * <p>
+ * Every other class is returned unchanged without being parsed: its name is matched against the
+ * {@linkplain AgentOptions options}, and its bytes are only searched for the {@link Profiled} descriptor.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+final class ProfilingTransformer implements ClassFileTransformer {
+
+    private static final String PROFILED = Type.getDescriptor(Profiled.class);
+    private static final byte[] PROFILED_BYTES = PROFILED.getBytes(StandardCharsets.UTF_8);
+    private static final Type HOOKS = Type.getType(AgentHooks.class);
+    private static final Type SCOPE = Type.getType(Scope.class);
+    private static final Method ENTER = new Method("enter", SCOPE, new Type[]{Type.INT_TYPE});
+    private static final Method EXIT = new Method("exit", Type.VOID_TYPE, new Type[]{SCOPE});
+    private static final Method FAIL = new Method("fail", Type.VOID_TYPE, new Type[]{SCOPE});
+    private static final int SKIPPED_ACCESS = Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE;
+
+    private final @NotNull AgentOptions options;
+
+    /**
+     * Whether each class loader sees the {@link AgentHooks} of this agent. Instrumented classes of loaders that
+     * don't would fail to link.
+     */
+    private final Map<ClassLoader, Boolean> visibility = new WeakHashMap<>();
+
+    ProfilingTransformer(@NotNull AgentOptions options) {
+        this.options = options;
+    }
+
+    @Override
+    public byte @Nullable [] transform(@Nullable ClassLoader loader, @Nullable String className,
+                                       @Nullable Class<?> classBeingRedefined, @Nullable ProtectionDomain protectionDomain,
+                                       byte @NotNull [] classfileBuffer) {
+        if (loader == null || className == null || options.isExcluded(className)) {
+            return null;
+        }
+        final boolean included = options.isIncluded(className);
+        if (!included && !contains(classfileBuffer, PROFILED_BYTES)) {
+            return null;
+        }
+        if (!seesHooks(loader)) {
+            return null;
+        }
+        try {
+            final ClassReader reader = new ClassReader(classfileBuffer);
+            final ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+            final ProfilingClassVisitor visitor = new ProfilingClassVisitor(writer, included);
+            reader.accept(visitor, ClassReader.EXPAND_FRAMES);
+            return visitor.instrumented ? writer.toByteArray() : null;
+        } catch (Throwable t) {
+            // exceptions thrown by a transformer are swallowed by the JVM; report them instead
+            System.err.println("[RuntimeProfiler] Failed to instrument " + className + ": " + t);
+            return null;
+        }
+    }
+
+    private boolean seesHooks(@NotNull ClassLoader loader) {
+        synchronized (visibility) {
+            return visibility.computeIfAbsent(loader, key -> {
+                try {
+                    return Class.forName(AgentHooks.class.getName(), false, key) == AgentHooks.class;
+                } catch (ClassNotFoundException | LinkageError e) {
+                    return false;
+                }
+            });
+        }
+    }
+
+    /**
+     * @return {@code true} if {@code bytes} contains {@code target}.
+     */
+    private static boolean contains(byte @NotNull [] bytes, byte @NotNull [] target) {
+        final byte first = target[0];
+        final int last = bytes.length - target.length;
+        outer:
+        for (int i = 0; i <= last; i++) {
+            if (bytes[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < target.length; j++) {
+                if (bytes[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static final class ProfilingClassVisitor extends ClassVisitor {
+
+        private String className;
+        private int version;
+        private boolean profiled;
+        private boolean instrumented;
+
+        ProfilingClassVisitor(@NotNull ClassVisitor visitor, boolean included) {
+            super(Opcodes.ASM9, visitor);
+            this.profiled = included;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            this.className = name.replace('/', '.');
+            this.version = version & 0xFFFF;
+            super.visit(version, access, name, signature, superName, interfaces);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            if (PROFILED.equals(descriptor)) {
+                profiled = true;
+            }
+            return super.visitAnnotation(descriptor, visible);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            final MethodVisitor visitor = super.visitMethod(access, name, descriptor, signature, exceptions);
+            if ((access & SKIPPED_ACCESS) != 0 || name.charAt(0) == '<') {
+                return visitor;
+            }
+            return new ProfilingMethodVisitor(this, visitor, access, name, descriptor);
+        }
+    }
+
+    private static final class ProfilingMethodVisitor extends AdviceAdapter {
+
+        private final @NotNull ProfilingClassVisitor owner;
+        private final Label start = new Label();
+        private final Label end = new Label();
+        private final Label handler = new Label();
+        private boolean annotated;
+        private @Nullable String location;
+        private boolean enabled;
+        private int scope;
+
+        ProfilingMethodVisitor(@NotNull ProfilingClassVisitor owner, @NotNull MethodVisitor visitor,
+                               int access, String name, String descriptor) {
+            super(Opcodes.ASM9, visitor, access, name, descriptor);
+            this.owner = owner;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            final AnnotationVisitor visitor = super.visitAnnotation(descriptor, visible);
+            if (!PROFILED.equals(descriptor)) {
+                return visitor;
+            }
+            annotated = true;
+            return new AnnotationVisitor(Opcodes.ASM9, visitor) {
+                @Override
+                public void visit(String name, Object value) {
+                    if ("value".equals(name) && !((String) value).isEmpty()) {
+                        location = (String) value;
+                    }
+                    super.visit(name, value);
+                }
+            };
+        }
+
+        @Override
+        protected void onMethodEnter() {
+            enabled = owner.profiled || annotated;
+            if (!enabled) {
+                return;
+            }
+            owner.instrumented = true;
+            push(AgentHooks.register((location == null) ? owner.className + "." + getName() : location));
+            invokeStatic(HOOKS, ENTER);
+            scope = newLocal(SCOPE);
+            storeLocal(scope);
+            visitLabel(start);
+        }
+
+        @Override
+        protected void onMethodExit(int opcode) {
+            // throws are handled by the catch-all handler
+            if (enabled && opcode != ATHROW) {
+                loadLocal(scope);
+                invokeStatic(HOOKS, EXIT);
+            }
+        }
+
+        @Override
+        public void visitMaxs(int maxStack, int maxLocals) {
+            if (enabled) {
+                // registered last, so that the method's own handlers take precedence
+                visitTryCatchBlock(start, end, handler, null);
+                visitLabel(end);
+                visitLabel(handler);
+                if (owner.version >= Opcodes.V1_6) {
+                    // only the scope is live in the handler; the other locals are left unspecified
+                    visitFrame(Opcodes.F_NEW, 0, new Object[0], 1, new Object[]{"java/lang/Throwable"});
+                }
+                loadLocal(scope);
+                invokeStatic(HOOKS, FAIL);
+                visitInsn(ATHROW);
+            }
+            super.visitMaxs(maxStack, maxLocals);
+        }
+    }
+}
\ No newline at end of file
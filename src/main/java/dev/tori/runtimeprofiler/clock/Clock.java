@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.clock;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A source of monotonic timestamps used to time locations.
+ * <p>
+ * Implementations must be thread-safe, as a single clock may be read by many recording threads.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @see CoarseClock
+ * @see VirtualClock
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface Clock {
+
+    /**
+     * @return the current timestamp in nanoseconds. Only the difference between two timestamps is meaningful.
+     */
+    long nanoTime();
+
+    /**
+     * @return a clock backed by {@link System#nanoTime()}, read once per timestamp.
+     */
+    @NotNull
+    @Contract(pure = true)
+    static Clock system() {
+        return SystemClock.INSTANCE;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.clock;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A clock whose timestamp is refreshed by a background ticker thread, so reading it costs no more than a
+ * volatile field read.
+ * <p>
+ * Timestamps are only as precise as the {@linkplain #resolutionNanos() resolution}; visits shorter than that
+ * will often measure as {@code 0}. The ticker is a daemon thread that runs until {@link #close()} is called.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public final class CoarseClock implements Clock, AutoCloseable {
+
+    private final long resolutionNanos;
+    private final Thread ticker;
+    private volatile long now;
+    private volatile boolean running;
+
+    /**
+     * Creates and starts a clock that ticks every {@code resolution} {@code unit}s.
+     *
+     * @throws IllegalArgumentException if {@code resolution} is not positive.
+     */
+    public CoarseClock(long resolution, @NotNull TimeUnit unit) {
+        if (resolution <= 0L) {
+            throw new IllegalArgumentException("resolution must be greater than zero");
+        }
+        this.resolutionNanos = unit.toNanos(resolution);
+        this.now = System.nanoTime();
+        this.running = true;
+        this.ticker = new Thread(this::tick, "RuntimeProfiler-CoarseClock");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    private void tick() {
+        while (running) {
+            LockSupport.parkNanos(resolutionNanos);
+            now = System.nanoTime();
+        }
+    }
+
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    public long resolutionNanos() {
+        return resolutionNanos;
+    }
+
+    /**
+     * Stops the ticker thread. The timestamp is frozen afterwards.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.clock;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A deterministic clock that only moves when told to, for writing exact tests against profiler statistics.
+ * <p>
+ * Optionally, every read can advance the clock by a fixed {@linkplain #setStep(long, TimeUnit) step}.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public final class VirtualClock implements Clock {
+
+    private final AtomicLong now;
+    private volatile long stepNanos;
+
+    /**
+     * Creates a clock at {@code 0} that does not advance on reads.
+     */
+    public VirtualClock() {
+        this.now = new AtomicLong();
+        this.stepNanos = 0L;
+    }
+
+    /**
+     * @return the current timestamp, then advances by the {@linkplain #setStep(long, TimeUnit) step}.
+     */
+    @Override
+    public long nanoTime() {
+        final long step = stepNanos;
+        return (step == 0L) ? now.get() : now.getAndAdd(step);
+    }
+
+    /**
+     * Moves this clock forward by the given amount.
+     */
+    public void advance(long duration, @NotNull TimeUnit unit) {
+        now.addAndGet(unit.toNanos(duration));
+    }
+
+    /**
+     * Sets the current timestamp.
+     */
+    public void set(long nanoTime) {
+        now.set(nanoTime);
+    }
+
+    /**
+     * Sets the amount this clock advances by after every read.
+     */
+    public void setStep(long step, @NotNull TimeUnit unit) {
+        stepNanos = unit.toNanos(step);
+    }
+}
\ No newline at end of file
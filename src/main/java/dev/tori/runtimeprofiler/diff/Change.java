@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.diff;
+
+/**
+ * How a location changed between a baseline and a current profile.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public enum Change {
+    /**
+     * The location only exists in the current profile.
+     */
+    ADDED,
+    /**
+     * The location only exists in the baseline profile.
+     */
+    REMOVED,
+    /**
+     * The location got slower by more than the {@linkplain Thresholds thresholds}.
+     */
+    REGRESSED,
+    /**
+     * The location got faster by more than the {@linkplain Thresholds thresholds}.
+     */
+    IMPROVED,
+    /**
+     * The location exists in both profiles and changed by less than the {@linkplain Thresholds thresholds}.
+     */
+    UNCHANGED
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.diff;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The change of one location between a baseline and a current profile.
+ *
+ * @param path     the full path of the location.
+ * @param depth    the depth of the location.
+ * @param change   how the location changed.
+ * @param baseline the location's statistics in the baseline, or {@link Stats#NONE} if it was {@linkplain Change#ADDED added}.
+ * @param current  the location's statistics in the current profile, or {@link Stats#NONE} if it was
+ *                 {@linkplain Change#REMOVED removed}.
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public record Delta(@NotNull String path, int depth, @NotNull Change change, @NotNull Stats baseline, @NotNull Stats current) {
+
+    /**
+     * @return the change of the given statistic, in nanoseconds.
+     */
+    public long delta(@NotNull Metric metric) {
+        return metric.of(current) - metric.of(baseline);
+    }
+
+    /**
+     * @return the change of the given statistic relative to the baseline, e.g. {@code 0.25} for 25% slower,
+     * or {@link Double#POSITIVE_INFINITY} if the baseline is {@code 0}.
+     */
+    public double relative(@NotNull Metric metric) {
+        final long before = metric.of(baseline);
+        final long delta = delta(metric);
+        if (before == 0L) {
+            return (delta == 0L) ? 0.0D : Double.POSITIVE_INFINITY;
+        }
+        return (double) delta / before;
+    }
+
+    /**
+     * @return the change in the number of visits.
+     */
+    public long visitsDelta() {
+        return current.visits() - baseline.visits();
+    }
+}
\ No newline at end of file
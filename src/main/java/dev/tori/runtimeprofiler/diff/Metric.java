@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.diff;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A timing statistic that a {@link ProfileDiff} checks for regressions.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public enum Metric {
+    TOTAL {
+        @Override
+        public long of(@NotNull Stats stats) {
+            return stats.totalNanos();
+        }
+    },
+    SELF {
+        @Override
+        public long of(@NotNull Stats stats) {
+            return stats.selfNanos();
+        }
+    },
+    AVG {
+        @Override
+        public long of(@NotNull Stats stats) {
+            return stats.avgNanos();
+        }
+    };
+
+    /**
+     * @return this statistic of the given {@code stats}, in nanoseconds.
+     */
+    public abstract long of(@NotNull Stats stats);
+}
\ No newline at end of file
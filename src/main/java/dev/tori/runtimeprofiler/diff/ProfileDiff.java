@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.diff;
+
+import dev.tori.runtimeprofiler.BinaryProfile;
+import dev.tori.runtimeprofiler.CsvProfile;
+import dev.tori.runtimeprofiler.IProfiler;
+import dev.tori.runtimeprofiler.LocData;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A comparison of two profiles, with locations aligned by path.
+ * <p>
+ * Every location of the current profile is listed in its order, followed by the locations that only exist in the
+ * baseline. Comparing takes time linear in the number of locations. Saved profiles can be compared after loading them
+ * with {@link BinaryProfile#open(java.nio.file.Path)}, or {@link CsvProfile#read(java.nio.file.Path)} for CSV reports.
+ * <pre>{@code
+ * ProfileDiff diff = ProfileDiff.compare(BinaryProfile.open(baselinePath), profiler);
+ * if (diff.hasRegressions()) {
+ *     DiffWriter.CONSOLE.print(diff, System.out);
+ * }
+ * }</pre>
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public final class ProfileDiff {
+
+    private final @NotNull String baselineLabel;
+    private final @NotNull String currentLabel;
+    private final @NotNull TimeUnit precision;
+    private final @NotNull Thresholds thresholds;
+    private final @NotNull List<Delta> deltas;
+    private final int @NotNull [] counts;
+
+    private ProfileDiff(@NotNull String baselineLabel, @NotNull String currentLabel, @NotNull TimeUnit precision,
+                        @NotNull Thresholds thresholds, @NotNull List<Delta> deltas, int @NotNull [] counts) {
+        this.baselineLabel = baselineLabel;
+        this.currentLabel = currentLabel;
+        this.precision = precision;
+        this.thresholds = thresholds;
+        this.deltas = deltas;
+        this.counts = counts;
+    }
+
+    /**
+     * Compares two profiles with the {@linkplain Thresholds#DEFAULT default thresholds}.
+     */
+    @NotNull
+    public static ProfileDiff compare(@NotNull IProfiler baseline, @NotNull IProfiler current) {
+        return compare(baseline, current, Thresholds.DEFAULT);
+    }
+
+    /**
+     * Compares two profiles.
+     *
+     * @param baseline   the profile to compare against, e.g. from the last release.
+     * @param current    the profile to check.
+     * @param thresholds decides which changes are regressions or improvements.
+     * @return the comparison, reported in the current profile's timing precision.
+     */
+    @NotNull
+    public static ProfileDiff compare(@NotNull IProfiler baseline, @NotNull IProfiler current, @NotNull Thresholds thresholds) {
+        final Map<String, Stats> before = new HashMap<>();
+        for (Map.Entry<String, LocData> entry : baseline.getEntries()) {
+            before.put(entry.getKey(), Stats.of(entry.getValue()));
+        }
+
+        final List<Delta> deltas = new ArrayList<>(Math.max(before.size(), 16));
+        final int[] counts = new int[Change.values().length];
+        for (Map.Entry<String, LocData> entry : current.getEntries()) {
+            final LocData data = entry.getValue();
+            final Stats previous = before.remove(entry.getKey());
+            final Stats stats = Stats.of(data);
+            final Change change = (previous == null) ? Change.ADDED : thresholds.classify(previous, stats);
+            deltas.add(new Delta(entry.getKey(), data.depth(), change, (previous == null) ? Stats.NONE : previous, stats));
+            counts[change.ordinal()]++;
+        }
+        if (!before.isEmpty()) {
+            // Keep the baseline's order for removed locations
+            for (Map.Entry<String, LocData> entry : baseline.getEntries()) {
+                final Stats previous = before.get(entry.getKey());
+                if (previous != null) {
+                    deltas.add(new Delta(entry.getKey(), entry.getValue().depth(), Change.REMOVED, previous, Stats.NONE));
+                    counts[Change.REMOVED.ordinal()]++;
+                }
+            }
+        }
+        return new ProfileDiff(baseline.getLabel(), current.getLabel(), current.getTimingPrecision(), thresholds,
+                Collections.unmodifiableList(deltas), counts);
+    }
+
+    @NotNull
+    public String baselineLabel() {
+        return baselineLabel;
+    }
+
+    @NotNull
+    public String currentLabel() {
+        return currentLabel;
+    }
+
+    /**
+     * @return the time unit reports of this comparison are written in.
+     */
+    @NotNull
+    public TimeUnit precision() {
+        return precision;
+    }
+
+    @NotNull
+    public Thresholds thresholds() {
+        return thresholds;
+    }
+
+    /**
+     * @return every compared location, in the current profile's order followed by removed locations.
+     */
+    @NotNull
+    public List<Delta> deltas() {
+        return deltas;
+    }
+
+    /**
+     * @return the locations that changed in the given way.
+     */
+    @NotNull
+    public List<Delta> deltas(@NotNull Change change) {
+        final List<Delta> result = new ArrayList<>(count(change));
+        for (Delta delta : deltas) {
+            if (delta.change() == change) {
+                result.add(delta);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the locations that got slower by more than the {@linkplain #thresholds() thresholds}.
+     */
+    @NotNull
+    public List<Delta> regressions() {
+        return deltas(Change.REGRESSED);
+    }
+
+    /**
+     * @return the locations that got faster by more than the {@linkplain #thresholds() thresholds}.
+     */
+    @NotNull
+    public List<Delta> improvements() {
+        return deltas(Change.IMPROVED);
+    }
+
+    public boolean hasRegressions() {
+        return count(Change.REGRESSED) > 0;
+    }
+
+    /**
+     * @return the number of locations that changed in the given way.
+     */
+    public int count(@NotNull Change change) {
+        return counts[change.ordinal()];
+    }
+
+    /**
+     * @return a one-line summary of the number of locations per {@link Change}.
+     */
+    @NotNull
+    public String summary() {
+        return "%s vs %s: %s regressed, %s improved, %s added, %s removed, %s unchanged".formatted(
+                currentLabel,
+                baselineLabel,
+                count(Change.REGRESSED),
+                count(Change.IMPROVED),
+                count(Change.ADDED),
+                count(Change.REMOVED),
+                count(Change.UNCHANGED)
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.diff;
+
+import dev.tori.runtimeprofiler.LocData;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The statistics of one location that a {@link ProfileDiff} compares, in nanoseconds.
+ *
+ * @param visits     the number of visits.
+ * @param totalNanos the total time spent in the location.
+ * @param selfNanos  the time spent in the location itself, excluding its children.
+ * @param avgNanos   the average time per visit.
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public record Stats(long visits, long totalNanos, long selfNanos, long avgNanos) {
+
+    /**
+     * The statistics of a location that does not exist in a profile.
+     */
+    public static final Stats NONE = new Stats(0L, 0L, 0L, 0L);
+
+    @NotNull
+    @Contract("_ -> new")
+    public static Stats of(@NotNull LocData data) {
+        return new Stats(data.visits(), data.totalNanos(), data.selfNanos(), data.avgNanos());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.diff;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which changes in a {@link ProfileDiff} are {@linkplain Change#REGRESSED regressions} or
+ * {@linkplain Change#IMPROVED improvements}. A change must exceed both the relative and the absolute threshold,
+ * so that tiny locations with large relative noise and large locations with small relative noise are both ignored.
+ *
+ * @param metric        the statistic to compare.
+ * @param relative      the minimum change relative to the baseline, e.g. {@code 0.1} for 10%.
+ * @param absoluteNanos the minimum change in nanoseconds.
+ * @param minVisits     the minimum number of visits in both profiles for a location to be classified.
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public record Thresholds(@NotNull Metric metric, double relative, long absoluteNanos, long minVisits) {
+
+    /**
+     * Flags changes in total time of more than 10% and more than 1 millisecond.
+     */
+    public static final Thresholds DEFAULT = new Thresholds(Metric.TOTAL, 0.1D, TimeUnit.MILLISECONDS.toNanos(1L), 1L);
+
+    public Thresholds {
+        if (relative < 0.0D) {
+            throw new IllegalArgumentException("relative must not be negative");
+        }
+        if (absoluteNanos < 0L) {
+            throw new IllegalArgumentException("absoluteNanos must not be negative");
+        }
+    }
+
+    /**
+     * @return a copy of these thresholds that compare the given statistic.
+     */
+    @NotNull
+    public Thresholds withMetric(@NotNull Metric metric) {
+        return new Thresholds(metric, relative, absoluteNanos, minVisits);
+    }
+
+    /**
+     * @return a copy of these thresholds with the given relative threshold, e.g. {@code 0.1} for 10%.
+     */
+    @NotNull
+    public Thresholds withRelative(double relative) {
+        return new Thresholds(metric, relative, absoluteNanos, minVisits);
+    }
+
+    /**
+     * @return a copy of these thresholds with the given absolute threshold.
+     */
+    @NotNull
+    public Thresholds withAbsolute(long absolute, @NotNull TimeUnit unit) {
+        return new Thresholds(metric, relative, unit.toNanos(absolute), minVisits);
+    }
+
+    /**
+     * @return a copy of these thresholds that only classify locations visited at least {@code minVisits} times.
+     */
+    @NotNull
+    public Thresholds withMinVisits(long minVisits) {
+        return new Thresholds(metric, relative, absoluteNanos, minVisits);
+    }
+
+    /**
+     * Classifies a location that exists in both profiles.
+     */
+    @NotNull
+    public Change classify(@NotNull Stats baseline, @NotNull Stats current) {
+        if (baseline.visits() < minVisits || current.visits() < minVisits) {
+            return Change.UNCHANGED;
+        }
+        final long before = metric.of(baseline);
+        final long delta = metric.of(current) - before;
+        final long magnitude = Math.abs(delta);
+        if (magnitude == 0L || magnitude < absoluteNanos || magnitude < relative * before) {
+            return Change.UNCHANGED;
+        }
+        return (delta > 0L) ? Change.REGRESSED : Change.IMPROVED;
+    }
+}
\ No newline at end of file
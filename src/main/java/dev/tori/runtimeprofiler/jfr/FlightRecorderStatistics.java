@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.jfr;
+
+import dev.tori.runtimeprofiler.ConcurrentProfiler;
+import dev.tori.runtimeprofiler.IProfiler;
+import dev.tori.runtimeprofiler.LocData;
+import jdk.jfr.FlightRecorder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Emits a {@link LocationStatisticsEvent} for every location of a profiler each time a JDK Flight Recorder
+ * recording requests it. Nothing is read from the profiler while no recording enables the event.
+ * <p>
+ * A {@link ConcurrentProfiler} can be read from any thread, so it can be read by the recorder directly:
+ * <pre>{@code
+ * FlightRecorderStatistics statistics = new FlightRecorderStatistics(profiler::snapshot);
+ * }</pre>
+ * A single-threaded {@link dev.tori.runtimeprofiler.Profiler Profiler} must be read on its own thread, so it
+ * {@linkplain #submit(IProfiler) submits} snapshots instead, and the latest one is emitted:
+ * <pre>{@code
+ * FlightRecorderStatistics statistics = new FlightRecorderStatistics();
+ * statistics.submit(profiler.snapshot());
+ * }</pre>
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public final class FlightRecorderStatistics implements AutoCloseable {
+
+    private final @Nullable Supplier<? extends IProfiler> source;
+    private final AtomicReference<IProfiler> submitted = new AtomicReference<>();
+    private final @NotNull Runnable hook = this::emit;
+    private volatile @Nullable Exception lastError;
+    private volatile boolean closed;
+
+    /**
+     * Constructs and registers statistics that emit the latest {@linkplain #submit(IProfiler) submitted} snapshot.
+     */
+    public FlightRecorderStatistics() {
+        this(null);
+    }
+
+    /**
+     * Constructs and registers statistics.
+     *
+     * @param source supplies the profiler to emit each period, or {@code null} to emit the latest
+     *               {@linkplain #submit(IProfiler) submitted} snapshot.
+     */
+    public FlightRecorderStatistics(@Nullable Supplier<? extends IProfiler> source) {
+        this.source = source;
+        FlightRecorder.addPeriodicEvent(LocationStatisticsEvent.class, hook);
+    }
+
+    /**
+     * Replaces the profiler emitted each period, typically with a {@linkplain IProfiler#snapshot() snapshot}.
+     *
+     * @param profiler the profiler to emit.
+     * @throws IllegalStateException if these statistics are closed.
+     */
+    public void submit(@NotNull IProfiler profiler) {
+        if (closed) {
+            throw new IllegalStateException("Statistics closed");
+        }
+        submitted.set(profiler);
+    }
+
+    /**
+     * @return the last exception thrown while reading the profiler, or {@code null} if none.
+     */
+    @Nullable
+    public Exception lastError() {
+        return lastError;
+    }
+
+    /**
+     * Stops emitting events.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        FlightRecorder.removePeriodicEvent(hook);
+    }
+
+    private void emit() {
+        try {
+            final IProfiler profiler = (source == null) ? submitted.get() : source.get();
+            if (profiler == null) {
+                return;
+            }
+            final String label = profiler.getLabel();
+            for (Map.Entry<String, LocData> entry : profiler.getEntries()) {
+                final LocData data = entry.getValue();
+                if (data.visits() == 0L) {
+                    continue;
+                }
+                final LocationStatisticsEvent event = new LocationStatisticsEvent();
+                event.profiler = label;
+                event.path = entry.getKey();
+                event.visits = data.visits();
+                event.exceptionalVisits = data.exceptionalVisits();
+                event.total = data.totalNanos();
+                event.self = data.selfNanos();
+                event.avg = data.avgNanos();
+                event.min = data.minNanos();
+                event.max = data.maxNanos();
+                event.commit();
+            }
+        } catch (RuntimeException e) {
+            lastError = e;
+        }
+    }
+}
\ No newline at end of file
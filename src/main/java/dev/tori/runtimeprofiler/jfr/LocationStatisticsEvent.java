@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A periodic JDK Flight Recorder event with the statistics of a single location, emitted for every location of the
+ * profilers registered with a {@link FlightRecorderStatistics}.
+ * <p>
+ * Emitted every {@code 10 s} by default, or at the period given in a recording's settings.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+@Name(LocationStatisticsEvent.NAME)
+@Label("Profiler Location Statistics")
+@Category("RuntimeProfiler")
+@Description("The statistics of a RuntimeProfiler location")
+@StackTrace(false)
+@Period("10 s")
+public final class LocationStatisticsEvent extends Event {
+
+    public static final String NAME = "dev.tori.runtimeprofiler.LocationStatistics";
+
+    @Label("Profiler")
+    public String profiler;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Visits")
+    public long visits;
+
+    @Label("Exceptional Visits")
+    public long exceptionalVisits;
+
+    @Label("Total Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long total;
+
+    @Label("Self Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long self;
+
+    @Label("Average Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long avg;
+
+    @Label("Minimum Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long min;
+
+    @Label("Maximum Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long max;
+}
\ No newline at end of file
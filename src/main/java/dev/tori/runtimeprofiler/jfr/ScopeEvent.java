@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.jfr;
+
+import dev.tori.runtimeprofiler.LocDataFactory;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A JDK Flight Recorder event spanning a single visit of a location, emitted by profilers whose
+ * {@link LocDataFactory#withFlightRecorder(boolean) factory} enables it.
+ * <p>
+ * Only visits that last at least the threshold, {@code 10 ms} by default, are committed. Like any JFR event, it can be
+ * enabled, disabled or given another threshold in a recording's settings, e.g.
+ * <pre>{@code
+ * recording.enable(ScopeEvent.NAME).withThreshold(Duration.ofMillis(1));
+ * }</pre>
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+@Name(ScopeEvent.NAME)
+@Label("Profiler Scope")
+@Category("RuntimeProfiler")
+@Description("A visit of a RuntimeProfiler location")
+@StackTrace(false)
+@Threshold("10 ms")
+public final class ScopeEvent extends Event {
+
+    public static final String NAME = "dev.tori.runtimeprofiler.Scope";
+
+    @Label("Location")
+    public String location;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Depth")
+    public int depth;
+
+    @Label("Exceptional")
+    @Description("Whether the visit ended with an exception")
+    public boolean exceptional;
+}
\ No newline at end of file
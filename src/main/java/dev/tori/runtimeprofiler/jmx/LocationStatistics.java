@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.jmx;
+
+import dev.tori.runtimeprofiler.LocData;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The statistics of a single location, as exposed by {@link ProfilerMXBean#getLocations()}. All times are in
+ * nanoseconds.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public final class LocationStatistics {
+
+    private final int depth;
+    private final long visits;
+    private final long exceptionalVisits;
+    private final long totalNanos;
+    private final long selfNanos;
+    private final long avgNanos;
+    private final long minNanos;
+    private final long maxNanos;
+
+    @Contract(pure = true)
+    LocationStatistics(@NotNull LocData data) {
+        this.depth = data.depth();
+        this.visits = data.visits();
+        this.exceptionalVisits = data.exceptionalVisits();
+        this.totalNanos = data.totalNanos();
+        this.selfNanos = data.selfNanos();
+        this.avgNanos = data.avgNanos();
+        this.minNanos = (data.visits() == 0L) ? 0L : data.minNanos();
+        this.maxNanos = (data.visits() == 0L) ? 0L : data.maxNanos();
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getVisits() {
+        return visits;
+    }
+
+    public long getExceptionalVisits() {
+        return exceptionalVisits;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getSelfNanos() {
+        return selfNanos;
+    }
+
+    public long getAvgNanos() {
+        return avgNanos;
+    }
+
+    public long getMinNanos() {
+        return minNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.jmx;
+
+import dev.tori.runtimeprofiler.ConcurrentProfiler;
+import dev.tori.runtimeprofiler.IProfiler;
+import dev.tori.runtimeprofiler.LocData;
+import dev.tori.runtimeprofiler.Profiler;
+import dev.tori.runtimeprofiler.write.OutputWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The {@link ProfilerMXBean} of a single profiler.
+ * <p>
+ * A {@link ConcurrentProfiler} is read {@linkplain ConcurrentProfiler#snapshot() directly}, which merges the threads'
+ * recordings without locking them; each location is read consistently, but not all at the same instant. A
+ * single-threaded {@link Profiler} can only be read on its own thread, so the bean reads the latest
+ * {@linkplain #publish() published} snapshot instead, and resets are deferred to the next publication.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+final class ProfilerBean implements ProfilerMXBean {
+
+    private final @NotNull IProfiler profiler;
+    private final boolean concurrent;
+    private final AtomicReference<IProfiler> published = new AtomicReference<>();
+    private final AtomicBoolean resetRequested = new AtomicBoolean();
+
+    ProfilerBean(@NotNull IProfiler profiler) {
+        this.profiler = profiler;
+        this.concurrent = profiler instanceof ConcurrentProfiler;
+    }
+
+    /**
+     * Publishes a snapshot of the single-threaded profiler, resetting it if requested. Must be called on the
+     * profiler's thread.
+     */
+    void publish() {
+        published.set(resetRequested.getAndSet(false) ? profiler.snapshotAndReset() : profiler.snapshot());
+    }
+
+    /**
+     * @return the latest statistics, or {@code null} if none were published yet.
+     */
+    @Nullable
+    private IProfiler view() {
+        return concurrent ? profiler.snapshot() : published.get();
+    }
+
+    @Override
+    public String getLabel() {
+        return profiler.getLabel();
+    }
+
+    @Override
+    public String getTimingPrecision() {
+        return profiler.getTimingPrecision().name();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return profiler.isEnabled();
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        profiler.setEnabled(enabled);
+    }
+
+    @Override
+    public int getLocationCount() {
+        final IProfiler view = view();
+        return (view == null) ? 0 : view.getEntries().size();
+    }
+
+    @Override
+    public Map<String, LocationStatistics> getLocations() {
+        final IProfiler view = view();
+        if (view == null) {
+            return Collections.emptyMap();
+        }
+        final Map<String, LocationStatistics> locations = new LinkedHashMap<>();
+        for (Map.Entry<String, LocData> entry : view.getEntries()) {
+            locations.put(entry.getKey(), new LocationStatistics(entry.getValue()));
+        }
+        return locations;
+    }
+
+    @Override
+    public void reset() {
+        if (concurrent) {
+            profiler.snapshotAndReset();
+        } else {
+            resetRequested.set(true);
+        }
+    }
+
+    @Override
+    public String writeSnapshot(String format, String directory) throws IOException {
+        final OutputWriter writer = OutputWriter.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        final IProfiler view = view();
+        if (view == null) {
+            throw new IllegalStateException("No snapshot was published yet");
+        }
+        final Path path = Path.of(directory).toAbsolutePath();
+        Files.createDirectories(path);
+        writer.writeToPath(view, path);
+        return path.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.jmx;
+
+import dev.tori.runtimeprofiler.write.OutputWriter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The management interface of a profiler registered with a {@link ProfilerRegistry}, e.g. for JConsole.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public interface ProfilerMXBean {
+
+    /**
+     * @return the label of the profiler.
+     */
+    String getLabel();
+
+    /**
+     * @return the name of the profiler's timing precision.
+     */
+    String getTimingPrecision();
+
+    /**
+     * @return {@code true} if the profiler records new visits.
+     */
+    boolean isEnabled();
+
+    /**
+     * Turns profiling on or off without restarting the profiler.
+     *
+     * @param enabled {@code false} to stop recording new visits.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return the number of locations in the latest statistics.
+     */
+    int getLocationCount();
+
+    /**
+     * @return the statistics of every location, keyed by path.
+     */
+    Map<String, LocationStatistics> getLocations();
+
+    /**
+     * Discards the statistics recorded so far; the next statistics only cover the time after now.
+     */
+    void reset();
+
+    /**
+     * Writes the latest statistics to a file.
+     *
+     * @param format    the name of the {@link OutputWriter}, e.g. {@code HTML}.
+     * @param directory the directory to write to, created if needed.
+     * @return the absolute path of the directory written to.
+     * @throws IOException if the file could not be written.
+     */
+    String writeSnapshot(String format, String directory) throws IOException;
+}
\ No newline at end of file
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.jmx;
+
+import dev.tori.runtimeprofiler.ConcurrentProfiler;
+import dev.tori.runtimeprofiler.IProfiler;
+import dev.tori.runtimeprofiler.Profiler;
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exposes profilers as {@link ProfilerMXBean MXBeans} named
+ * {@code dev.tori.runtimeprofiler:type=Profiler,name=<label>}, so they can be watched and controlled with JConsole
+ * or any other JMX client.
+ * <pre>{@code
+ * ProfilerRegistry registry = new ProfilerRegistry();
+ * registry.register(concurrentProfiler);
+ * }</pre>
+ * Reading a bean never locks a profiler's recording threads. A single-threaded {@link Profiler} must be read on its
+ * own thread, so it {@linkplain #publish(Profiler) publishes} snapshots instead, and its bean shows the latest one:
+ * <pre>{@code
+ * registry.register(profiler);
+ * // periodically, on the profiler's thread
+ * registry.publish(profiler);
+ * }</pre>
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public final class ProfilerRegistry implements AutoCloseable {
+
+    public static final String DOMAIN = "dev.tori.runtimeprofiler";
+
+    private final @NotNull MBeanServer server;
+    private final Map<IProfiler, Registration> registrations = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a registry of the {@linkplain ManagementFactory#getPlatformMBeanServer() platform MBean server}.
+     */
+    public ProfilerRegistry() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * @param server the server to register beans with.
+     */
+    public ProfilerRegistry(@NotNull MBeanServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Registers a bean that reads the given profiler directly.
+     *
+     * @return the name of the bean.
+     * @throws IllegalArgumentException if a bean with the profiler's label is already registered.
+     */
+    @NotNull
+    public ObjectName register(@NotNull ConcurrentProfiler profiler) {
+        return register((IProfiler) profiler);
+    }
+
+    /**
+     * Registers a bean that shows the latest {@linkplain #publish(Profiler) published} snapshot of the given profiler.
+     *
+     * @return the name of the bean.
+     * @throws IllegalArgumentException if a bean with the profiler's label is already registered.
+     */
+    @NotNull
+    public ObjectName register(@NotNull Profiler profiler) {
+        return register((IProfiler) profiler);
+    }
+
+    /**
+     * Publishes a snapshot of the given profiler to its bean, applying any reset requested through the bean since
+     * the last one. Must be called on the profiler's thread.
+     *
+     * @throws IllegalArgumentException if the profiler is not registered.
+     * @throws IllegalStateException    if the profiler is not started.
+     */
+    public void publish(@NotNull Profiler profiler) {
+        final Registration registration = registrations.get(profiler);
+        if (registration == null) {
+            throw new IllegalArgumentException("Profiler " + profiler.getLabel() + " is not registered");
+        }
+        registration.bean.publish();
+    }
+
+    /**
+     * Unregisters the bean of the given profiler, if any.
+     */
+    public void unregister(@NotNull IProfiler profiler) {
+        final Registration registration = registrations.remove(profiler);
+        if (registration != null) {
+            try {
+                server.unregisterMBean(registration.name);
+            } catch (JMException ignored) {
+                // already unregistered through the server
+            }
+        }
+    }
+
+    /**
+     * Unregisters every bean of this registry.
+     */
+    @Override
+    public void close() {
+        for (IProfiler profiler : registrations.keySet()) {
+            unregister(profiler);
+        }
+    }
+
+    @NotNull
+    private ObjectName register(@NotNull IProfiler profiler) {
+        final ProfilerBean bean = new ProfilerBean(profiler);
+        try {
+            final ObjectName name = new ObjectName(DOMAIN + ":type=Profiler,name=" + ObjectName.quote(profiler.getLabel()));
+            server.registerMBean(new StandardMBean(bean, ProfilerMXBean.class, true), name);
+            registrations.put(profiler, new Registration(name, bean));
+            return name;
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Cannot register profiler " + profiler.getLabel(), e);
+        }
+    }
+
+    private record Registration(@NotNull ObjectName name, @NotNull ProfilerBean bean) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.junit;
+
+import dev.tori.runtimeprofiler.LocData;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the measured statistics of a location in a {@link ProfiledTest} test. The test fails if any limit is exceeded.
+ * Negative limits are not checked.
+ * <p>
+ * Percentile limits record {@linkplain LocData#histogram() latency histograms} for the whole test.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(Budgets.class)
+public @interface Budget {
+
+    /**
+     * @return the location to check: a full path, or the trailing part of one, such as {@code "parse"} for
+     * {@code root/parsesQuickly/parse}. Every matching location is checked. Defaults to the test method itself.
+     */
+    String location() default "";
+
+    /**
+     * @return the unit of the time limits.
+     */
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+
+    long avg() default -1L;
+
+    long max() default -1L;
+
+    /**
+     * @return the limit of the location's total time over all measured runs.
+     */
+    long total() default -1L;
+
+    long p50() default -1L;
+
+    long p90() default -1L;
+
+    long p99() default -1L;
+
+    long p999() default -1L;
+
+    /**
+     * @return the maximum number of visits over all measured runs.
+     */
+    long maxVisits() default -1L;
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.junit;
+
+import dev.tori.runtimeprofiler.Profiler;
+import dev.tori.runtimeprofiler.write.OutputWriter;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a test method repeatedly under a {@link Profiler} and checks its {@link Budget budgets}.
+ * <p>
+ * Like {@code @RepeatedTest}, this replaces {@code @Test}: each warm-up and measured run is a separate invocation,
+ * with a new test instance and its own {@code @BeforeEach} and {@code @AfterEach} callbacks, so fixtures are not
+ * shared between runs. The test may declare a {@link Profiler} or {@link dev.tori.runtimeprofiler.IProfiler IProfiler} parameter to
+ * record its own locations. Each run is also recorded as a location named after the test method.
+ * <pre>{@code
+ * @ProfiledTest(warmups = 5, iterations = 20)
+ * @Budget(location = "parse", avg = 2, p99 = 10)
+ * void parsesQuickly(Profiler profiler) {
+ *     profiler.push("parse");
+ *     parser.parse(input);
+ *     profiler.pop();
+ * }
+ * }</pre>
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@TestTemplate
+@ExtendWith(ProfilerExtension.class)
+public @interface ProfiledTest {
+
+    /**
+     * @return the number of unmeasured runs before the measured ones; must not be negative.
+     */
+    int warmups() default 3;
+
+    /**
+     * @return the number of measured runs; must be greater than {@code 0}.
+     */
+    int iterations() default 10;
+
+    /**
+     * @return the timing precision of the profiler.
+     */
+    TimeUnit precision() default TimeUnit.NANOSECONDS;
+
+    /**
+     * @return the reports to write when a budget is exceeded.
+     */
+    OutputWriter[] reports() default {OutputWriter.HTML};
+
+    /**
+     * @return the directory to write reports to, created if needed.
+     */
+    String reportPath() default "target/profiles";
+}
\ No newline at end of file
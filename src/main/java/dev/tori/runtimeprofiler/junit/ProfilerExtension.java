@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.junit;
+
+import dev.tori.runtimeprofiler.IProfiler;
+import dev.tori.runtimeprofiler.LocData;
+import dev.tori.runtimeprofiler.LocDataFactory;
+import dev.tori.runtimeprofiler.Location;
+import dev.tori.runtimeprofiler.Profiler;
+import dev.tori.runtimeprofiler.config.Config;
+import dev.tori.runtimeprofiler.util.UnitUtil;
+import dev.tori.runtimeprofiler.write.OutputWriter;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Runs {@link ProfiledTest} tests and checks their {@link Budget budgets}. Registered by {@link ProfiledTest}.
+ * <p>
+ * Each test method gets its own {@link Profiler}. Every warm-up and measured run is a separate invocation of the
+ * test template, with its own test instance and lifecycle callbacks, as with {@code @RepeatedTest}. The warm-up runs
+ * are discarded with {@link Profiler#snapshotAndReset()} before the first measured run. The profiler is stopped and
+ * the budgets are checked once every run is done, even if some were skipped or aborted, and the test template fails
+ * if any budget is exceeded.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public class ProfilerExtension implements ParameterResolver, TestTemplateInvocationContextProvider {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ProfilerExtension.class);
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        final Class<?> type = parameterContext.getParameter().getType();
+        return type == Profiler.class || type == IProfiler.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return profiler(extensionContext);
+    }
+
+    @Override
+    public boolean supportsTestTemplate(ExtensionContext context) {
+        return context.getTestMethod().map(method -> AnnotationSupport.isAnnotated(method, ProfiledTest.class)).orElse(false);
+    }
+
+    @Override
+    public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(ExtensionContext context) {
+        final ProfiledTest profiled = profiled(context);
+        if (profiled.iterations() <= 0) {
+            throw new IllegalArgumentException("@ProfiledTest iterations must be greater than zero");
+        }
+        if (profiled.warmups() < 0) {
+            throw new IllegalArgumentException("@ProfiledTest warmups must not be negative");
+        }
+        final Session session = session(context);
+        final Location location = session.profiler.location(context.getRequiredTestMethod().getName());
+        // started here rather than by the first run, which is skipped if an assumption fails before it
+        session.profiler.start();
+        return IntStream.range(0, profiled.warmups() + profiled.iterations())
+                .mapToObj(run -> new Run(session, location, run));
+    }
+
+    @NotNull
+    private static ProfiledTest profiled(@NotNull ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), ProfiledTest.class)
+                .orElseThrow(() -> new IllegalStateException("Missing @ProfiledTest on " + context.getDisplayName()));
+    }
+
+    @NotNull
+    private static Profiler profiler(@NotNull ExtensionContext context) {
+        return session(context).profiler;
+    }
+
+    /**
+     * @return the session of the test method; shared by its invocations, whose stores fall back to the method's.
+     */
+    @NotNull
+    private static Session session(@NotNull ExtensionContext context) {
+        return context.getStore(NAMESPACE).getOrComputeIfAbsent(Session.class, type -> {
+            final Method method = context.getRequiredTestMethod();
+            final ProfiledTest profiled = profiled(context);
+            boolean histograms = false;
+            for (Budget budget : AnnotationSupport.findRepeatableAnnotations(method, Budget.class)) {
+                histograms |= budget.p50() >= 0L || budget.p90() >= 0L || budget.p99() >= 0L || budget.p999() >= 0L;
+            }
+            final LocDataFactory factory = new LocDataFactory(profiled.precision()).withHistograms(histograms);
+            final Profiler profiler = new Profiler(context.getRequiredTestClass().getSimpleName() + "." + method.getName(), factory, Config.defaultMaxDepth());
+            return new Session(profiler, method, profiled);
+        }, Session.class);
+    }
+
+    /**
+     * @return a description of every exceeded limit.
+     */
+    @NotNull
+    private static List<String> check(@NotNull Profiler profiler, @NotNull Method method) {
+        final List<String> violations = new ArrayList<>();
+        final String separator = Config.pathSeparator();
+        for (Budget budget : AnnotationSupport.findRepeatableAnnotations(method, Budget.class)) {
+            final String location = budget.location().isEmpty() ? method.getName() : budget.location();
+            boolean found = false;
+            for (Map.Entry<String, LocData> entry : profiler.getEntries()) {
+                final String path = entry.getKey();
+                if (!path.equals(location) && !path.endsWith(separator + location)) {
+                    continue;
+                }
+                found = true;
+                final LocData data = entry.getValue();
+                final TimeUnit unit = budget.unit();
+                checkTime(violations, path, "avg", data.avgNanos(), budget.avg(), unit);
+                checkTime(violations, path, "max", data.maxNanos(), budget.max(), unit);
+                checkTime(violations, path, "total", data.totalNanos(), budget.total(), unit);
+                if (data.histogram() != null) {
+                    checkTime(violations, path, "p50", data.percentile(50.0D, TimeUnit.NANOSECONDS), budget.p50(), unit);
+                    checkTime(violations, path, "p90", data.percentile(90.0D, TimeUnit.NANOSECONDS), budget.p90(), unit);
+                    checkTime(violations, path, "p99", data.percentile(99.0D, TimeUnit.NANOSECONDS), budget.p99(), unit);
+                    checkTime(violations, path, "p99.9", data.percentile(99.9D, TimeUnit.NANOSECONDS), budget.p999(), unit);
+                }
+                if (budget.maxVisits() >= 0L && data.visits() > budget.maxVisits()) {
+                    violations.add("%s: %s visits exceed the budget of %s".formatted(path, data.visits(), budget.maxVisits()));
+                }
+            }
+            if (!found) {
+                violations.add("%s: location was never visited".formatted(location));
+            }
+        }
+        return violations;
+    }
+
+    private static void checkTime(@NotNull List<String> violations, @NotNull String path, @NotNull String statistic,
+                                  long nanos, long limit, @NotNull TimeUnit unit) {
+        if (limit >= 0L && nanos > unit.toNanos(limit)) {
+            final String abbreviation = UnitUtil.abbreviate(unit);
+            violations.add("%s: %s of %s %s exceeds the budget of %s %s".formatted(
+                    path,
+                    statistic,
+                    unit.convert(nanos, TimeUnit.NANOSECONDS),
+                    abbreviation,
+                    limit,
+                    abbreviation
+            ));
+        }
+    }
+
+    /**
+     * Writes the configured reports of a failed test.
+     *
+     * @return a note on where the reports were written, to append to the failure message.
+     */
+    @NotNull
+    private static String writeReports(@NotNull Profiler profiler, @NotNull ProfiledTest profiled) {
+        if (profiled.reports().length == 0) {
+            return "";
+        }
+        final Path path = Path.of(profiled.reportPath());
+        try {
+            Files.createDirectories(path);
+            for (OutputWriter writer : profiled.reports()) {
+                writer.writeToPath(profiler, path);
+            }
+            return System.lineSeparator() + "Reports written to " + path.toAbsolutePath();
+        } catch (IOException e) {
+            return System.lineSeparator() + "Could not write reports to " + path.toAbsolutePath() + ": " + e;
+        }
+    }
+
+    /**
+     * The profiler of a test method. Stored with the test template, whose store closes it once every run is done,
+     * so that the profiler is stopped and the budgets are checked even if the last run was skipped or aborted.
+     */
+    private static final class Session implements ExtensionContext.Store.CloseableResource {
+
+        private final @NotNull Profiler profiler;
+        private final @NotNull Method method;
+        private final @NotNull ProfiledTest profiled;
+        private boolean measuring;
+
+        Session(@NotNull Profiler profiler, @NotNull Method method, @NotNull ProfiledTest profiled) {
+            this.profiler = profiler;
+            this.method = method;
+            this.profiled = profiled;
+        }
+
+        /**
+         * Discards the warm-up runs before the first measured run that is executed.
+         */
+        void measure() {
+            if (!measuring) {
+                measuring = true;
+                if (profiled.warmups() > 0) {
+                    profiler.snapshotAndReset();
+                }
+            }
+        }
+
+        /**
+         * Stops the profiler and checks the budgets, unless no measured run was executed.
+         *
+         * @throws AssertionError if any budget is exceeded.
+         */
+        @Override
+        public void close() {
+            profiler.stop();
+            if (!measuring) {
+                return;
+            }
+            final List<String> violations = check(profiler, method);
+            if (!violations.isEmpty()) {
+                final String reports = writeReports(profiler, profiled);
+                throw new AssertionError(violations.size() + " budget(s) exceeded:" + System.lineSeparator()
+                        + String.join(System.lineSeparator(), violations) + reports);
+            }
+        }
+    }
+
+    /**
+     * A single warm-up or measured run, which records the test method as a location.
+     */
+    private static final class Run implements TestTemplateInvocationContext, InvocationInterceptor {
+
+        private final @NotNull Session session;
+        private final @NotNull Location location;
+        private final int run;
+
+        Run(@NotNull Session session, @NotNull Location location, int run) {
+            this.session = session;
+            this.location = location;
+            this.run = run;
+        }
+
+        @Override
+        public String getDisplayName(int invocationIndex) {
+            final ProfiledTest profiled = session.profiled;
+            return (run < profiled.warmups())
+                    ? "warm-up %d of %d".formatted(run + 1, profiled.warmups())
+                    : "iteration %d of %d".formatted(run - profiled.warmups() + 1, profiled.iterations());
+        }
+
+        @Override
+        public List<Extension> getAdditionalExtensions() {
+            return List.of(this);
+        }
+
+        @Override
+        public void interceptTestTemplateMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                                ExtensionContext extensionContext) throws Throwable {
+            if (run >= session.profiled.warmups()) {
+                session.measure();
+            }
+            final Profiler profiler = session.profiler;
+            profiler.push(location);
+            try {
+                invocation.proceed();
+            } finally {
+                profiler.pop();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -21,7 +21,9 @@
 
 package dev.tori.runtimeprofiler.util;
 
+import dev.tori.runtimeprofiler.clock.Clock;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
 
 import java.util.concurrent.TimeUnit;
 
@@ -32,10 +34,22 @@ import java.util.concurrent.TimeUnit;
 @ApiStatus.Internal
 public class Stopwatch {
 
+    /**
+     * @since 2.1.0
+     */
+    private final @NotNull Clock clock;
     private long nanoTime;
     private long totalNanoTime;
 
     public Stopwatch() {
+        this(Clock.system());
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    public Stopwatch(@NotNull Clock clock) {
+        this.clock = clock;
         this.reset();
     }
 
@@ -44,19 +58,29 @@ public class Stopwatch {
     }
 
     public long snap(TimeUnit timeUnit) {
-        final long elapsed = System.nanoTime() - nanoTime;
-        nanoTime = System.nanoTime();
-        return timeUnit.convert(elapsed, TimeUnit.NANOSECONDS);
+        return timeUnit.convert(snapNanos(), TimeUnit.NANOSECONDS);
     }
 
+    /**
+     * Reads the clock once, returning the time since the previous snap and restarting from that same reading.
+     */
     public long snapNanos() {
-        final long elapsed = System.nanoTime() - nanoTime;
-        nanoTime = System.nanoTime();
+        final long now = clock.nanoTime();
+        final long elapsed = now - nanoTime;
+        nanoTime = now;
         return elapsed;
     }
 
+    /**
+     * @return the nanoseconds elapsed since the previous snap, without restarting.
+     * @since 2.1.0
+     */
+    public long peekNanos() {
+        return clock.nanoTime() - nanoTime;
+    }
+
     public Stopwatch reset() {
-        totalNanoTime = nanoTime = System.nanoTime();
+        totalNanoTime = nanoTime = clock.nanoTime();
         return this;
     }
 }
\ No newline at end of file
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.write;
+
+import dev.tori.runtimeprofiler.IProfiler;
+import dev.tori.runtimeprofiler.Snapshot;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes {@link Snapshot snapshots} with one or more {@link OutputWriter OutputWriters} on a background thread.
+ * <p>
+ * Snapshots are handed over through a bounded queue. With {@link OverflowPolicy#DROP}, {@link #submit(Snapshot)}
+ * never blocks; snapshots that don't fit are dropped and counted in the {@linkplain #metrics() metrics}.
+ * The background thread writes every queued snapshot, up to {@code maxBatch} at a time, each time it wakes up.
+ * Each file is named after the snapshot's label and capture time, followed by a sequence number that is unique
+ * to this exporter, so snapshots taken within the same millisecond don't overwrite each other.
+ * <pre>{@code
+ * AsyncExporter exporter = new AsyncExporter(Path.of("profiles"), OutputWriter.CSV);
+ * exporter.submit(profiler.snapshotAndReset());
+ * }</pre>
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public final class AsyncExporter implements AutoCloseable {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int DEFAULT_MAX_BATCH = 16;
+    private static final long POLL_MILLIS = 100L;
+
+    private final @NotNull Path path;
+    private final @NotNull OutputWriter @NotNull [] writers;
+    private final @NotNull OverflowPolicy policy;
+    private final int maxBatch;
+    private final @NotNull BlockingQueue<Snapshot> queue;
+    private final @NotNull Thread thread;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong exported = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile @Nullable Exception lastError;
+    private volatile boolean closed;
+
+    /**
+     * Constructs and starts an exporter that drops snapshots when {@value #DEFAULT_CAPACITY} are already queued.
+     *
+     * @param path    the directory to write to.
+     * @param writers the formats to write every snapshot in.
+     */
+    public AsyncExporter(@NotNull Path path, @NotNull OutputWriter @NotNull ... writers) {
+        this(path, DEFAULT_CAPACITY, OverflowPolicy.DROP, DEFAULT_MAX_BATCH, AsyncExporter::newDaemonThread, writers);
+    }
+
+    /**
+     * Constructs and starts an exporter.
+     *
+     * @param path          the directory to write to.
+     * @param capacity      the maximum number of queued snapshots; must be greater than {@code 0}.
+     * @param policy        what {@link #submit(Snapshot)} does when the queue is full.
+     * @param maxBatch      the maximum number of snapshots written per wake-up; must be greater than {@code 0}.
+     * @param threadFactory creates the background thread, e.g. {@code Thread.ofVirtual().factory()} on Java 21+.
+     * @param writers       the formats to write every snapshot in.
+     */
+    public AsyncExporter(@NotNull Path path, int capacity, @NotNull OverflowPolicy policy, int maxBatch,
+                         @NotNull ThreadFactory threadFactory, @NotNull OutputWriter @NotNull ... writers) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than zero");
+        }
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("maxBatch must be greater than zero");
+        }
+        if (writers.length == 0) {
+            throw new IllegalArgumentException("At least one writer is required");
+        }
+        this.path = path;
+        this.writers = writers.clone();
+        this.policy = policy;
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = threadFactory.newThread(this::run);
+        this.thread.start();
+    }
+
+    /**
+     * Queues the given snapshot for export.
+     *
+     * @param snapshot the snapshot to write.
+     * @return {@code true} if the snapshot was queued, {@code false} if it was dropped.
+     * @throws IllegalStateException if this exporter is closed.
+     */
+    public boolean submit(@NotNull Snapshot snapshot) {
+        if (closed) {
+            throw new IllegalStateException("Exporter closed");
+        }
+        submitted.incrementAndGet();
+        // if close() has drained the queue for the last time since the check above, take the snapshot back
+        if (enqueue(snapshot) && (!closed || !queue.remove(snapshot))) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    private boolean enqueue(@NotNull Snapshot snapshot) {
+        if (policy == OverflowPolicy.BLOCK) {
+            try {
+                queue.put(snapshot);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return queue.offer(snapshot);
+    }
+
+    /**
+     * Queues a {@linkplain IProfiler#snapshot() snapshot} of the given profiler for export.
+     *
+     * @param profiler the profiler to take a snapshot of.
+     * @return {@code true} if the snapshot was queued, {@code false} if it was dropped.
+     * @throws IllegalStateException if this exporter is closed.
+     */
+    public boolean submit(@NotNull IProfiler profiler) {
+        return submit(profiler.snapshot());
+    }
+
+    /**
+     * @return the current counters of this exporter.
+     */
+    @NotNull
+    public Metrics metrics() {
+        return new Metrics(queue.size(), submitted.get(), exported.get(), dropped.get(), failed.get(), batches.get());
+    }
+
+    /**
+     * @return the last exception thrown by a writer, or {@code null} if none.
+     */
+    @Nullable
+    public Exception lastError() {
+        return lastError;
+    }
+
+    /**
+     * Stops accepting snapshots and waits for the queued ones to be written.
+     * <p>
+     * A snapshot submitted concurrently with this method is either written or counted as dropped.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        // snapshots queued after the background thread's last check
+        Snapshot snapshot;
+        while ((snapshot = queue.poll()) != null) {
+            write(snapshot);
+        }
+    }
+
+    private void run() {
+        final List<Snapshot> batch = new ArrayList<>(maxBatch);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                final Snapshot first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // only close() stops this thread
+                continue;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            for (Snapshot snapshot : batch) {
+                write(snapshot);
+            }
+            batch.clear();
+            batches.incrementAndGet();
+        }
+    }
+
+    private void write(@NotNull Snapshot snapshot) {
+        final String name = snapshot.getLabel() + "_" + OutputWriter.generateDateSuffix(snapshot.timestamp()) + "_" + sequence.incrementAndGet();
+        for (OutputWriter writer : writers) {
+            try {
+                writer.checkPathExists(path);
+                writer.writeToFile(snapshot, path.resolve(name + writer.fileExtension()));
+                exported.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                lastError = e;
+            }
+        }
+    }
+
+    @NotNull
+    private static Thread newDaemonThread(@NotNull Runnable task) {
+        final Thread thread = new Thread(task, "RuntimeProfiler-exporter");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * What {@link #submit(Snapshot)} does when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drops the submitted snapshot, so submitting never blocks.
+         */
+        DROP,
+        /**
+         * Waits for space in the queue. Only use this from threads other than the profiled code.
+         */
+        BLOCK
+    }
+
+    /**
+     * A point-in-time view of an exporter's counters.
+     *
+     * @param queued    the number of snapshots waiting to be written.
+     * @param submitted the number of snapshots submitted, including dropped ones.
+     * @param exported  the number of files written.
+     * @param dropped   the number of snapshots dropped because the queue was full.
+     * @param failed    the number of files that could not be written.
+     * @param batches   the number of times the background thread woke up to write.
+     */
+    public record Metrics(int queued, long submitted, long exported, long dropped, long failed, long batches) {
+    }
+}
\ No newline at end of file
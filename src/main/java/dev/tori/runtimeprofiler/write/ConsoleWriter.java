@@ -23,10 +23,12 @@ package dev.tori.runtimeprofiler.write;
 
 import dev.tori.runtimeprofiler.IProfiler;
 import dev.tori.runtimeprofiler.LocData;
+import dev.tori.runtimeprofiler.Overhead;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.PrintStream;
 import java.text.DecimalFormat;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author <a href="https://github.com/7orivorian">7orivorian</a>
@@ -37,30 +39,51 @@ public enum ConsoleWriter {
         @Override
         public void print(@NotNull IProfiler profiler, @NotNull PrintStream out, int maxPathDepth) {
             out.println(profiler.getLabel());
+            TimeUnit unit = profiler.getTimingPrecision();
+            long totalRuntime = profiler.getTotalRuntime(TimeUnit.NANOSECONDS);
+            DecimalFormat percentFormat = new DecimalFormat("#.###");
             profiler.getEntries().forEach(entry -> {
                 LocData data = entry.getValue();
                 if (data.depth() > maxPathDepth) {
                     return;
                 }
-                String percent = new DecimalFormat("#.###").format(((double) data.total() / profiler.getTotalRuntime()) * 100);
-                out.println(data.loc() + ": visits=%s, Avg=%s, Min=%s, Max=%s, Runtime=%s, %s%s of Runtime"
+                String percent = percentFormat.format(((double) data.totalNanos() / totalRuntime) * 100);
+                String percentiles = (data.histogram() == null) ? "" : ", P50=%s, P90=%s, P99=%s, P99.9=%s"
+                        .formatted(
+                                data.percentile(50.0D, unit),
+                                data.percentile(90.0D, unit),
+                                data.percentile(99.0D, unit),
+                                data.percentile(99.9D, unit)
+                        );
+                String sampled = data.sampling().isEnabled() ? " (%s sampled)".formatted(data.samplingPercent()) : "";
+                String exceptional = (data.exceptionalVisits() == 0L) ? "" : " (%s exceptional, Avg=%s)"
+                        .formatted(data.exceptionalVisits(), data.exceptionalAvg(unit));
+                String recursive = (data.recursiveVisits() == 0L) ? "" : " (%s recursive)".formatted(data.recursiveVisits());
+                out.println(data.loc() + ": visits=%s%s%s%s, Avg=%s, Min=%s, Max=%s%s, Runtime=%s, Self=%s, %s%s of Runtime"
                         .formatted(
                                 data.visits(),
-                                data.avg(),
-                                data.minTime(),
-                                data.maxTime(),
-                                data.total(),
+                                recursive,
+                                sampled,
+                                exceptional,
+                                data.avg(unit),
+                                data.minTime(unit),
+                                data.maxTime(unit),
+                                percentiles,
+                                data.total(unit),
+                                data.self(unit),
                                 percent,
                                 "%"
                         )
                 );
             });
+            printOverhead(profiler, out);
         }
     },
     AVG_ONLY {
         @Override
         public void print(@NotNull IProfiler profiler, @NotNull PrintStream out, int maxPathDepth) {
             out.println(profiler.getLabel());
+            TimeUnit unit = profiler.getTimingPrecision();
             profiler.getEntries().forEach(entry -> {
                 LocData data = entry.getValue();
                 if (data.depth() > maxPathDepth) {
@@ -69,12 +92,57 @@ public enum ConsoleWriter {
                 out.println(data.loc() + ": visits=%s, Avg=%s, Min=%s, Max=%s"
                         .formatted(
                                 data.visits(),
-                                data.avg(),
-                                data.minTime(),
-                                data.maxTime()
+                                data.avg(unit),
+                                data.minTime(unit),
+                                data.maxTime(unit)
+                        )
+                );
+            });
+            printOverhead(profiler, out);
+        }
+    },
+    /**
+     * Prints every location by descending self time, i.e. the time spent in the location itself rather than
+     * in its children.
+     *
+     * @since 2.1.0
+     */
+    HOTSPOTS {
+        @Override
+        public void print(@NotNull IProfiler profiler, @NotNull PrintStream out, int maxPathDepth) {
+            out.println(profiler.getLabel());
+            TimeUnit unit = profiler.getTimingPrecision();
+            long totalRuntime = profiler.getTotalRuntime(TimeUnit.NANOSECONDS);
+            DecimalFormat percentFormat = new DecimalFormat("#.###");
+            profiler.sorted(LocData.BY_SELF_TIME).getEntries().forEach(entry -> {
+                LocData data = entry.getValue();
+                if (data.depth() > maxPathDepth) {
+                    return;
+                }
+                String percent = percentFormat.format(((double) data.selfNanos() / totalRuntime) * 100);
+                out.println(entry.getKey() + ": Self=%s, %s%s of Runtime, visits=%s, Runtime=%s"
+                        .formatted(
+                                data.self(unit),
+                                percent,
+                                "%",
+                                data.visits(),
+                                data.total(unit)
                         )
                 );
             });
+            printOverhead(profiler, out);
+        }
+    },
+    /**
+     * Draws a top-style dashboard of the locations with the most self time for an ANSI terminal, redrawing the
+     * screen in place. Use a {@link LiveConsole} to refresh it at a fixed rate while the profiler runs.
+     *
+     * @since 2.1.0
+     */
+    LIVE {
+        @Override
+        public void print(@NotNull IProfiler profiler, @NotNull PrintStream out, int maxPathDepth) {
+            new Dashboard(Dashboard.DEFAULT_ROWS, LocData.BY_SELF_TIME).print(profiler, out, maxPathDepth);
         }
     };
 
@@ -82,5 +150,14 @@ public enum ConsoleWriter {
         print(profiler, out, Integer.MAX_VALUE);
     }
 
+    /**
+     * Prints the given profiler's {@linkplain Overhead overhead report}.
+     *
+     * @since 2.1.0
+     */
+    public static void printOverhead(@NotNull IProfiler profiler, @NotNull PrintStream out) {
+        out.println(Overhead.of(profiler).summary(profiler.getTimingPrecision()));
+    }
+
     public abstract void print(@NotNull IProfiler profiler, @NotNull PrintStream out, int maxPathDepth);
 }
\ No newline at end of file
@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.write;
+
+import dev.tori.runtimeprofiler.IProfiler;
+import dev.tori.runtimeprofiler.LocData;
+import dev.tori.runtimeprofiler.Location;
+import dev.tori.runtimeprofiler.Overhead;
+import dev.tori.runtimeprofiler.Snapshot;
+import dev.tori.runtimeprofiler.util.UnitUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders a top-style view of a profiler's busiest locations for an ANSI terminal.
+ * <p>
+ * Each frame redraws the screen in place. Visit rates are computed against the previous frame, or over the whole
+ * profile for the first frame and for profiles that only cover the time since the previous one.
+ * The frame buffer and top-N heap are reused between frames.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+final class Dashboard {
+
+    private static final String HOME = "\033[H";
+    private static final String CLEAR_LINE = "\033[K";
+    private static final String CLEAR_BELOW = "\033[J";
+    private static final String BOLD = "\033[1m";
+    private static final String RESET = "\033[0m";
+
+    static final int DEFAULT_ROWS = 20;
+    private static final int MAX_LOCATION_WIDTH = 80;
+
+    private final int rows;
+    private final @NotNull Comparator<? super LocData> order;
+    private final @NotNull PriorityQueue<LocData> top;
+    private final @NotNull LocData[] ranked;
+    private final @NotNull StringBuilder frame = new StringBuilder(4096);
+
+    /**
+     * The locations seen in previous frames, as a tree keyed by {@link Location}, so that they are matched across
+     * snapshots without building their paths. Locations without a {@link Location} are keyed by path below it.
+     */
+    private final @NotNull Node previous = new Node();
+    private int previousNodes;
+    private @NotNull LocData[] lastData = new LocData[16];
+    private @NotNull Node[] lastNodes = new Node[16];
+    private long generation;
+    private long previousMillis = -1L;
+    private long previousRuntime;
+
+    Dashboard(int rows, @NotNull Comparator<? super LocData> order) {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("rows must be greater than zero");
+        }
+        this.rows = rows;
+        this.order = order;
+        // The head is the location that would be dropped first
+        this.top = new PriorityQueue<>(rows + 1, order.reversed());
+        this.ranked = new LocData[rows];
+    }
+
+    void print(@NotNull IProfiler profiler, @NotNull PrintStream out, int maxPathDepth) {
+        final long nowMillis = (profiler instanceof Snapshot snapshot) ? snapshot.timestamp() : System.currentTimeMillis();
+        final TimeUnit unit = profiler.getTimingPrecision();
+        final long totalRuntime = profiler.getTotalRuntime(TimeUnit.NANOSECONDS);
+        // A profile that ran for much less than the time since the last frame only covers its own interval,
+        // e.g. one taken with snapshotAndReset(), so its visits are all new
+        final boolean interval = (previousMillis < 0L)
+                || (totalRuntime - previousRuntime) < TimeUnit.MILLISECONDS.toNanos(nowMillis - previousMillis) / 2L;
+        final long windowNanos = interval ? totalRuntime : totalRuntime - previousRuntime;
+        generation++;
+
+        int locations = 0;
+        long pairs = 0L;
+        long bytes = 0L;
+        for (Map.Entry<String, LocData> entry : profiler.getEntries()) {
+            final LocData data = entry.getValue();
+            locations++;
+            if (data.depth() > 1) {
+                pairs += data.visits();
+            }
+            bytes += data.estimatedBytes();
+            final Node state = track(data, entry);
+            final long visits = data.visits();
+            final long before = (!interval && state.generation == generation - 1) ? state.visits : 0L;
+            // Fewer visits than last frame means the profiler was reset in between
+            state.newVisits = (visits >= before) ? visits - before : visits;
+            state.visits = visits;
+            state.generation = generation;
+            if (data.depth() > maxPathDepth) {
+                continue;
+            }
+            top.add(data);
+            if (top.size() > rows) {
+                top.poll();
+            }
+        }
+        Arrays.fill(lastData, null);
+        if (previousNodes > 2 * locations) {
+            previousNodes -= previous.prune(generation);
+        }
+
+        int count = 0;
+        while (!top.isEmpty()) {
+            ranked[count++] = top.poll();
+        }
+        Arrays.sort(ranked, 0, count, order);
+
+        final String abbreviation = UnitUtil.abbreviate(unit);
+        frame.setLength(0);
+        frame.append(HOME).append(BOLD).append(profiler.getLabel()).append(RESET)
+                .append("  runtime ").append(profiler.getTotalRuntime()).append(' ').append(abbreviation)
+                .append("  locations ").append(locations)
+                .append("  top ").append(count)
+                .append(CLEAR_LINE).append('\n').append(CLEAR_LINE).append('\n');
+
+        frame.append(BOLD);
+        pad(frame, "Self", abbreviation, 14);
+        pad(frame, "Self%", null, 8);
+        pad(frame, "Total", abbreviation, 14);
+        pad(frame, "Total%", null, 8);
+        pad(frame, "Visits", null, 12);
+        pad(frame, "Visits/s", null, 12);
+        pad(frame, "Avg", abbreviation, 12);
+        pad(frame, "P99", abbreviation, 12);
+        frame.append("  Location").append(RESET).append(CLEAR_LINE).append('\n');
+
+        for (int i = 0; i < count; i++) {
+            final LocData data = ranked[i];
+            ranked[i] = null;
+            final String path = data.path();
+            final long newVisits = node(data, path).newVisits;
+
+            appendRight(frame, data.self(unit), 14);
+            appendPercent(frame, data.selfNanos(), totalRuntime, 8);
+            appendRight(frame, data.total(unit), 14);
+            appendPercent(frame, data.totalNanos(), totalRuntime, 8);
+            appendRight(frame, data.visits(), 12);
+            appendRight(frame, (windowNanos <= 0L) ? 0L : (long) (newVisits * 1.0E9D / windowNanos), 12);
+            appendRight(frame, data.avg(unit), 12);
+            appendRight(frame, (data.histogram() == null) ? data.maxTime(unit) : data.percentile(99.0D, unit), 12);
+            frame.append("  ");
+            if (path.length() > MAX_LOCATION_WIDTH) {
+                frame.append("...").append(path, path.length() - MAX_LOCATION_WIDTH + 3, path.length());
+            } else {
+                frame.append(path);
+            }
+            frame.append(CLEAR_LINE).append('\n');
+        }
+
+        frame.append(CLEAR_LINE).append('\n')
+                .append(Overhead.of(profiler, pairs, locations, bytes).summary(unit)).append(CLEAR_LINE).append('\n')
+                .append(CLEAR_BELOW);
+        out.print(frame);
+        out.flush();
+        previousMillis = nowMillis;
+        previousRuntime = totalRuntime;
+    }
+
+    /**
+     * Returns the node of the given entry, creating it if absent. In depth-first order, the parent's node is
+     * the last one seen at the parent's depth, so it's found without walking up the tree.
+     */
+    @NotNull
+    private Node track(@NotNull LocData data, @NotNull Map.Entry<String, LocData> entry) {
+        final int depth = data.depth();
+        final LocData parent = data.parent();
+        final Node node;
+        if (data.location() == null) {
+            node = child(previous, entry.getKey());
+        } else if (parent == null) {
+            node = child(previous, data.location());
+        } else if (depth - 1 < lastData.length && lastData[depth - 1] == parent) {
+            node = child(lastNodes[depth - 1], data.location());
+        } else {
+            node = node(data, null);
+        }
+        if (depth >= lastData.length) {
+            lastData = Arrays.copyOf(lastData, Math.max(lastData.length * 2, depth + 1));
+            lastNodes = Arrays.copyOf(lastNodes, lastData.length);
+        }
+        lastData[depth] = data;
+        lastNodes[depth] = node;
+        return node;
+    }
+
+    /**
+     * @param path the path of {@code data}, if already known.
+     * @return the node of the given location, creating it and its ancestors if absent.
+     */
+    @NotNull
+    private Node node(@NotNull LocData data, @Nullable String path) {
+        final Location location = data.location();
+        if (location == null) {
+            return child(previous, (path == null) ? data.path() : path);
+        }
+        final LocData parent = data.parent();
+        return child((parent == null) ? previous : node(parent, null), location);
+    }
+
+    @NotNull
+    private Node child(@NotNull Node parent, @NotNull Object key) {
+        Node child = parent.children.get(key);
+        if (child == null) {
+            child = new Node();
+            parent.children.put(key, child);
+            previousNodes++;
+        }
+        return child;
+    }
+
+    private static void pad(@NotNull StringBuilder sb, @NotNull String title, @Nullable String unit, int width) {
+        final int length = title.length() + ((unit == null) ? 0 : unit.length() + 3);
+        for (int i = length; i < width; i++) {
+            sb.append(' ');
+        }
+        sb.append(title);
+        if (unit != null) {
+            sb.append(" (").append(unit).append(')');
+        }
+    }
+
+    private static void appendRight(@NotNull StringBuilder sb, long value, int width) {
+        for (int i = digits(value); i < width; i++) {
+            sb.append(' ');
+        }
+        sb.append(value);
+    }
+
+    /**
+     * Appends {@code part / whole} as a percentage with one decimal.
+     */
+    private static void appendPercent(@NotNull StringBuilder sb, long part, long whole, int width) {
+        final long tenths = (whole <= 0L) ? 0L : Math.round(part * 1000.0D / whole);
+        for (int i = digits(tenths / 10) + 3; i < width; i++) {
+            sb.append(' ');
+        }
+        sb.append(tenths / 10).append('.').append(Math.abs(tenths % 10)).append('%');
+    }
+
+    private static int digits(long value) {
+        int digits = (value < 0L) ? 2 : 1;
+        for (long v = Math.abs(value); v >= 10L; v /= 10L) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * A location's visit count and generation of the last frame it was seen in, and its new visits in that frame.
+     */
+    private static final class Node {
+
+        private final @NotNull Map<Object, Node> children = new HashMap<>(4);
+        private long visits;
+        private long generation;
+        private long newVisits;
+
+        /**
+         * Removes every descendant that was not seen in the given generation.
+         *
+         * @return the number of nodes removed.
+         */
+        int prune(long generation) {
+            int removed = 0;
+            for (Iterator<Node> iterator = children.values().iterator(); iterator.hasNext(); ) {
+                final Node child = iterator.next();
+                if (child.generation != generation) {
+                    iterator.remove();
+                    removed += 1 + child.size();
+                } else {
+                    removed += child.prune(generation);
+                }
+            }
+            return removed;
+        }
+
+        private int size() {
+            int size = 0;
+            for (Node child : children.values()) {
+                size += 1 + child.size();
+            }
+            return size;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.write;
+
+import com.opencsv.CSVWriter;
+import dev.tori.runtimeprofiler.diff.Change;
+import dev.tori.runtimeprofiler.diff.Delta;
+import dev.tori.runtimeprofiler.diff.Metric;
+import dev.tori.runtimeprofiler.diff.ProfileDiff;
+import dev.tori.runtimeprofiler.diff.Stats;
+import dev.tori.runtimeprofiler.diff.Thresholds;
+import dev.tori.runtimeprofiler.util.UnitUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes {@link ProfileDiff} reports. The console and HTML reports list the locations that changed; the CSV report
+ * lists every location.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public enum DiffWriter {
+
+    CONSOLE {
+        @Override
+        public void write(@NotNull ProfileDiff diff, @NotNull Writer out) throws IOException {
+            TimeUnit unit = diff.precision();
+            String abbreviation = UnitUtil.abbreviate(unit);
+            out.write(diff.summary());
+            out.write(System.lineSeparator());
+            out.write(describe(diff.thresholds()));
+            out.write(System.lineSeparator());
+            for (Delta delta : diff.deltas()) {
+                if (delta.change() == Change.UNCHANGED) {
+                    continue;
+                }
+                out.write("[" + delta.change() + "] " + delta.path()
+                        + ": Runtime=" + change(delta, Metric.TOTAL, unit, abbreviation)
+                        + ", Self=" + change(delta, Metric.SELF, unit, abbreviation)
+                        + ", Avg=" + change(delta, Metric.AVG, unit, abbreviation)
+                        + ", visits=" + delta.baseline().visits() + " -> " + delta.current().visits());
+                out.write(System.lineSeparator());
+            }
+        }
+
+        @Override
+        public String fileExtension() {
+            return ".txt";
+        }
+    },
+    CSV {
+        @Override
+        public void write(@NotNull ProfileDiff diff, @NotNull Writer out) throws IOException {
+            TimeUnit unit = diff.precision();
+            String abbreviation = UnitUtil.abbreviate(unit);
+            CSVWriter writer = new CSVWriter(out);
+            List<String> header = new ArrayList<>(List.of("Location", "Change", "Visits (Baseline)", "Visits (Current)"));
+            for (String metric : new String[]{"Runtime", "Self", "Avg"}) {
+                header.add(metric + " (Baseline, " + abbreviation + ")");
+                header.add(metric + " (Current, " + abbreviation + ")");
+                header.add(metric + " Delta (" + abbreviation + ")");
+                header.add(metric + " Delta (%)");
+            }
+            writer.writeNext(header.toArray(String[]::new), true);
+            String[] row = new String[header.size()];
+            for (Delta delta : diff.deltas()) {
+                row[0] = delta.path();
+                row[1] = delta.change().name();
+                row[2] = Long.toString(delta.baseline().visits());
+                row[3] = Long.toString(delta.current().visits());
+                int column = 4;
+                for (Metric metric : Metric.values()) {
+                    row[column++] = Long.toString(unit.convert(metric.of(delta.baseline()), TimeUnit.NANOSECONDS));
+                    row[column++] = Long.toString(unit.convert(metric.of(delta.current()), TimeUnit.NANOSECONDS));
+                    row[column++] = Long.toString(unit.convert(delta.delta(metric), TimeUnit.NANOSECONDS));
+                    row[column++] = relative(delta, metric);
+                }
+                writer.writeNext(row, true);
+            }
+            writer.flush();
+        }
+
+        @Override
+        public String fileExtension() {
+            return ".csv";
+        }
+    },
+    HTML {
+        @Override
+        public void write(@NotNull ProfileDiff diff, @NotNull Writer out) throws IOException {
+            TimeUnit unit = diff.precision();
+            String date = OutputWriter.generateDateSuffix();
+
+            Map<String, Template.Value> values = new HashMap<>();
+            values.put("title", Template.text(OutputWriter.escapeXml(diff.currentLabel() + " vs " + diff.baselineLabel())));
+            values.put("current", Template.text(OutputWriter.escapeXml(diff.currentLabel())));
+            values.put("baseline", Template.text(OutputWriter.escapeXml(diff.baselineLabel())));
+            values.put("date", Template.text(date));
+            values.put("abbrtimeunit", Template.text(UnitUtil.abbreviate(unit)));
+            values.put("summary", Template.text(OutputWriter.escapeXml(diff.summary())));
+            values.put("thresholds", Template.text(OutputWriter.escapeXml(describe(diff.thresholds()))));
+            values.put("tablebody", body -> {
+                for (Delta delta : diff.deltas()) {
+                    if (delta.change() == Change.UNCHANGED) {
+                        continue;
+                    }
+                    body.write("<tr class=\"");
+                    body.write(delta.change().name().toLowerCase(Locale.ROOT));
+                    body.write("\"><th>");
+                    body.write(OutputWriter.escapeXml(delta.path()));
+                    body.write("</th><td>");
+                    body.write(delta.change().name());
+                    body.write("</td>");
+                    cell(body, Long.toString(delta.baseline().visits()));
+                    cell(body, Long.toString(delta.current().visits()));
+                    for (Metric metric : Metric.values()) {
+                        cell(body, Long.toString(unit.convert(metric.of(delta.baseline()), TimeUnit.NANOSECONDS)));
+                        cell(body, Long.toString(unit.convert(metric.of(delta.current()), TimeUnit.NANOSECONDS)));
+                        cell(body, signed(unit.convert(delta.delta(metric), TimeUnit.NANOSECONDS)));
+                        String relative = relative(delta, metric);
+                        cell(body, relative.isEmpty() ? "new" : relative + "%");
+                    }
+                    body.write("</tr>\n");
+                }
+            });
+            Template.of(DIFF_TEMPLATE).render(out, values);
+        }
+
+        @Override
+        public String fileExtension() {
+            return ".html";
+        }
+    };
+
+    private static final String DIFF_TEMPLATE = "templates/diff.html";
+
+    /**
+     * Writes the report of the given comparison to {@code out}.
+     */
+    public abstract void write(@NotNull ProfileDiff diff, @NotNull Writer out) throws IOException;
+
+    public abstract String fileExtension();
+
+    /**
+     * Prints the report of the given comparison, e.g. to {@link System#out}.
+     */
+    public void print(@NotNull ProfileDiff diff, @NotNull PrintStream out) {
+        PrintWriter writer = new PrintWriter(out);
+        try {
+            write(diff, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes the report of the given comparison to a new file in the given directory.
+     */
+    public void writeToPath(@NotNull ProfileDiff diff, @NotNull Path path) throws IOException {
+        OutputWriter.CSV.checkPathExists(path);
+        String name = diff.currentLabel() + "_vs_" + diff.baselineLabel() + "_" + OutputWriter.generateDateSuffix() + fileExtension();
+        try (BufferedWriter writer = Files.newBufferedWriter(path.resolve(name))) {
+            write(diff, writer);
+        }
+    }
+
+    @NotNull
+    private static String change(@NotNull Delta delta, @NotNull Metric metric, @NotNull TimeUnit unit, @NotNull String abbreviation) {
+        String relative = relative(delta, metric);
+        return unit.convert(metric.of(delta.baseline()), TimeUnit.NANOSECONDS) + " -> "
+                + unit.convert(metric.of(delta.current()), TimeUnit.NANOSECONDS) + " " + abbreviation
+                + " (" + signed(unit.convert(delta.delta(metric), TimeUnit.NANOSECONDS))
+                + (relative.isEmpty() ? "" : ", " + relative + "%") + ")";
+    }
+
+    /**
+     * @return the relative change as a signed percentage without the percent sign, or an empty string if the
+     * baseline is {@code 0}.
+     */
+    @NotNull
+    private static String relative(@NotNull Delta delta, @NotNull Metric metric) {
+        double relative = delta.relative(metric);
+        if (Double.isInfinite(relative)) {
+            return "";
+        }
+        String percent = OutputWriter.formatPercent(Math.abs(relative) * 100);
+        return (relative > 0 ? "+" : relative < 0 ? "-" : "") + percent;
+    }
+
+    @NotNull
+    private static String signed(long value) {
+        return (value > 0L) ? "+" + value : Long.toString(value);
+    }
+
+    @NotNull
+    private static String describe(@NotNull Thresholds thresholds) {
+        return "Flagging changes in " + thresholds.metric().name().toLowerCase(Locale.ROOT) + " time of more than "
+                + OutputWriter.formatPercent(thresholds.relative() * 100) + "% and "
+                + thresholds.absoluteNanos() + " ns, for locations with at least " + thresholds.minVisits() + " visits";
+    }
+
+    private static void cell(@NotNull Writer out, @NotNull String value) throws IOException {
+        out.write("<td>");
+        out.write(value);
+        out.write("</td>");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.write;
+
+import dev.tori.runtimeprofiler.ConcurrentProfiler;
+import dev.tori.runtimeprofiler.IProfiler;
+import dev.tori.runtimeprofiler.LocData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.PrintStream;
+import java.util.Comparator;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Redraws a {@linkplain ConsoleWriter#LIVE live dashboard} of a running profiler at a fixed rate on a background
+ * thread, e.g. to watch a load test on a headless machine.
+ * <p>
+ * A {@link ConcurrentProfiler} can be read from any thread, so the console can take its own snapshots:
+ * <pre>{@code
+ * LiveConsole console = new LiveConsole(profiler::snapshot, System.out, 1, TimeUnit.SECONDS);
+ * }</pre>
+ * A single-threaded {@link dev.tori.runtimeprofiler.Profiler Profiler} must be read on its own thread, so it
+ * {@linkplain #submit(IProfiler) submits} snapshots instead, and the console draws the latest one:
+ * <pre>{@code
+ * LiveConsole console = new LiveConsole(System.out, 1, TimeUnit.SECONDS);
+ * console.submit(profiler.snapshot());
+ * }</pre>
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+public final class LiveConsole implements AutoCloseable {
+
+    private static final int DEFAULT_ROWS = Dashboard.DEFAULT_ROWS;
+
+    private final @Nullable Supplier<? extends IProfiler> source;
+    private final @NotNull PrintStream out;
+    private final long periodNanos;
+    private final @NotNull Dashboard dashboard;
+    private final @NotNull Thread thread;
+    private final AtomicReference<IProfiler> submitted = new AtomicReference<>();
+    private volatile @Nullable Exception lastError;
+    private volatile boolean closed;
+
+    /**
+     * Constructs and starts a console that draws the latest {@linkplain #submit(IProfiler) submitted} snapshot,
+     * showing the {@value #DEFAULT_ROWS} locations with the most self time.
+     *
+     * @param out    the terminal to draw on.
+     * @param period the time between frames.
+     * @param unit   the unit of {@code period}.
+     */
+    public LiveConsole(@NotNull PrintStream out, long period, @NotNull TimeUnit unit) {
+        this(null, out, period, unit, DEFAULT_ROWS, LocData.BY_SELF_TIME, LiveConsole::newDaemonThread);
+    }
+
+    /**
+     * Constructs and starts a console that draws a profiler from {@code source} every frame, showing the
+     * {@value #DEFAULT_ROWS} locations with the most self time.
+     *
+     * @param source supplies the profiler to draw, e.g. {@code concurrentProfiler::snapshot}. Called from the
+     *               console's thread.
+     * @param out    the terminal to draw on.
+     * @param period the time between frames.
+     * @param unit   the unit of {@code period}.
+     */
+    public LiveConsole(@NotNull Supplier<? extends IProfiler> source, @NotNull PrintStream out, long period, @NotNull TimeUnit unit) {
+        this(source, out, period, unit, DEFAULT_ROWS, LocData.BY_SELF_TIME, LiveConsole::newDaemonThread);
+    }
+
+    /**
+     * Constructs and starts a console.
+     *
+     * @param source        supplies the profiler to draw every frame, or {@code null} to draw the latest
+     *                      {@linkplain #submit(IProfiler) submitted} one.
+     * @param out           the terminal to draw on.
+     * @param period        the time between frames; must be greater than {@code 0}.
+     * @param unit          the unit of {@code period}.
+     * @param rows          the number of locations to show; must be greater than {@code 0}.
+     * @param order         ranks the locations, e.g. {@link LocData#BY_SELF_TIME} or {@link LocData#BY_TOTAL_TIME}.
+     * @param threadFactory creates the background thread.
+     */
+    public LiveConsole(@Nullable Supplier<? extends IProfiler> source, @NotNull PrintStream out, long period, @NotNull TimeUnit unit,
+                       int rows, @NotNull Comparator<? super LocData> order, @NotNull ThreadFactory threadFactory) {
+        if (period <= 0L) {
+            throw new IllegalArgumentException("period must be greater than zero");
+        }
+        this.source = source;
+        this.out = out;
+        this.periodNanos = unit.toNanos(period);
+        this.dashboard = new Dashboard(rows, order);
+        this.thread = threadFactory.newThread(this::run);
+        this.thread.start();
+    }
+
+    /**
+     * Replaces the profiler drawn by the next frame. Only used when this console has no source.
+     *
+     * @param profiler the profiler to draw, usually a {@linkplain IProfiler#snapshot() snapshot}.
+     * @throws IllegalStateException if this console is closed.
+     */
+    public void submit(@NotNull IProfiler profiler) {
+        if (closed) {
+            throw new IllegalStateException("Console closed");
+        }
+        submitted.set(profiler);
+    }
+
+    /**
+     * @return the last exception thrown while drawing a frame, or {@code null} if none.
+     */
+    @Nullable
+    public Exception lastError() {
+        return lastError;
+    }
+
+    /**
+     * Stops redrawing and waits for the current frame to finish.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long next = System.nanoTime();
+        while (!closed) {
+            final IProfiler profiler = (source == null) ? submitted.getAndSet(null) : source.get();
+            if (profiler != null) {
+                try {
+                    dashboard.print(profiler, out, Integer.MAX_VALUE);
+                } catch (Exception e) {
+                    lastError = e;
+                }
+            }
+            next += periodNanos;
+            for (long wait = next - System.nanoTime(); wait > 0L && !closed; wait = next - System.nanoTime()) {
+                LockSupport.parkNanos(this, wait);
+            }
+            if (next < System.nanoTime()) {
+                // Fell behind, e.g. after a slow frame; don't try to catch up
+                next = System.nanoTime();
+            }
+        }
+    }
+
+    @NotNull
+    private static Thread newDaemonThread(@NotNull Runnable task) {
+        final Thread thread = new Thread(task, "RuntimeProfiler-console");
+        thread.setDaemon(true);
+        return thread;
+    }
+}
\ No newline at end of file
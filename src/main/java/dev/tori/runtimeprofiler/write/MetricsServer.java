@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.write;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.tori.runtimeprofiler.ConcurrentProfiler;
+import dev.tori.runtimeprofiler.IProfiler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Serves the statistics of a profiler as <a href="https://openmetrics.io">OpenMetrics</a> text at {@code /metrics},
+ * for Prometheus and other OpenMetrics scrapers, from an embedded {@link HttpServer}.
+ * <p>
+ * A {@link ConcurrentProfiler} can be read from any thread, so each scrape can take its own snapshot:
+ * <pre>{@code
+ * MetricsServer server = new MetricsServer(new InetSocketAddress(9400), profiler::snapshot);
+ * }</pre>
+ * A single-threaded {@link dev.tori.runtimeprofiler.Profiler Profiler} must be read on its own thread, so it
+ * {@linkplain #submit(IProfiler) submits} snapshots instead, and each scrape renders the latest one:
+ * <pre>{@code
+ * MetricsServer server = new MetricsServer(new InetSocketAddress(9400), null);
+ * server.submit(profiler.snapshot());
+ * }</pre>
+ * Scrapes are handled one at a time on a single daemon thread, rendering into buffers reused by every scrape.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @see OpenMetricsWriter
+ * @since 2.1.0
+ */
+public final class MetricsServer implements AutoCloseable {
+
+    public static final String PATH = "/metrics";
+
+    private final @Nullable Supplier<? extends IProfiler> source;
+    private final @NotNull OpenMetricsWriter writer;
+    private final @NotNull HttpServer server;
+    private final @NotNull ExecutorService executor;
+    private final AtomicReference<IProfiler> submitted = new AtomicReference<>();
+    private volatile @Nullable Exception lastError;
+
+    /**
+     * Constructs and starts a server with the {@linkplain OpenMetricsWriter#DEFAULT_BUCKETS default histogram buckets}.
+     *
+     * @param address the address to listen on, e.g. {@code new InetSocketAddress(9400)}.
+     * @param source  supplies the profiler to render on each scrape, or {@code null} to render the latest
+     *                {@linkplain #submit(IProfiler) submitted} snapshot.
+     * @throws IOException if the server cannot be bound to {@code address}.
+     */
+    public MetricsServer(@NotNull InetSocketAddress address, @Nullable Supplier<? extends IProfiler> source) throws IOException {
+        this(address, source, new OpenMetricsWriter());
+    }
+
+    /**
+     * Constructs and starts a server.
+     *
+     * @param address the address to listen on, e.g. {@code new InetSocketAddress(9400)}.
+     * @param source  supplies the profiler to render on each scrape, or {@code null} to render the latest
+     *                {@linkplain #submit(IProfiler) submitted} snapshot.
+     * @param writer  renders each scrape; must not be used elsewhere.
+     * @throws IOException if the server cannot be bound to {@code address}.
+     */
+    public MetricsServer(@NotNull InetSocketAddress address, @Nullable Supplier<? extends IProfiler> source,
+                         @NotNull OpenMetricsWriter writer) throws IOException {
+        this.source = source;
+        this.writer = writer;
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            final Thread thread = new Thread(task, "RuntimeProfiler-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(address, 0);
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Replaces the profiler rendered on each scrape, typically with a {@linkplain IProfiler#snapshot() snapshot}.
+     *
+     * @param profiler the profiler to render.
+     */
+    public void submit(@NotNull IProfiler profiler) {
+        submitted.set(profiler);
+    }
+
+    /**
+     * @return the address the server listens on, e.g. to find the port chosen for port {@code 0}.
+     */
+    @NotNull
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    /**
+     * @return the last exception thrown while rendering a scrape, or {@code null} if none.
+     */
+    @Nullable
+    public Exception lastError() {
+        return lastError;
+    }
+
+    /**
+     * Stops the server, waiting at most a second for the current scrape to finish.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1L, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(@NotNull HttpExchange exchange) throws IOException {
+        try (exchange) {
+            final String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1L);
+                return;
+            }
+            synchronized (writer) {
+                final int length;
+                try {
+                    final IProfiler profiler = (source == null) ? submitted.get() : source.get();
+                    if (profiler == null) {
+                        // nothing submitted yet
+                        exchange.sendResponseHeaders(503, -1L);
+                        return;
+                    }
+                    length = writer.encode(profiler);
+                } catch (RuntimeException e) {
+                    lastError = e;
+                    exchange.sendResponseHeaders(500, -1L);
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Type", OpenMetricsWriter.CONTENT_TYPE);
+                if (method.equals("HEAD")) {
+                    exchange.sendResponseHeaders(200, -1L);
+                    return;
+                }
+                exchange.sendResponseHeaders(200, length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(writer.encoded(), 0, length);
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.write;
+
+import dev.tori.runtimeprofiler.Histogram;
+import dev.tori.runtimeprofiler.IProfiler;
+import dev.tori.runtimeprofiler.LocData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Renders the statistics of a profiler as <a href="https://openmetrics.io">OpenMetrics</a> text, the format scraped
+ * by Prometheus. Each location is a series labelled with its {@code path} and the profiler's label:
+ * <pre>{@code
+ * # TYPE runtimeprofiler_visits counter
+ * runtimeprofiler_visits_total{profiler="Server",path="root/handle"} 1532
+ * }</pre>
+ * The families are the {@code visits}, {@code exceptional_visits}, {@code time_seconds} and {@code self_time_seconds}
+ * counters, the {@code min_seconds} and {@code max_seconds} gauges, and, for locations with a
+ * {@linkplain LocData#histogram() histogram}, the {@code latency_seconds} histogram. Counters are only monotonic when
+ * rendering cumulative statistics, e.g. {@link IProfiler#snapshot()} rather than {@link IProfiler#snapshotAndReset()}.
+ * <p>
+ * The text is rendered into buffers reused by every call, so a writer must not be shared by threads rendering
+ * concurrently; calls are serialized.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @see MetricsServer
+ * @since 2.1.0
+ */
+public final class OpenMetricsWriter {
+
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    /**
+     * The default upper bounds of the histogram buckets, from {@code 1 µs} to {@code 10 s}, in nanoseconds.
+     */
+    public static final long[] DEFAULT_BUCKETS = {
+            1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L, 10_000_000_000L
+    };
+
+    private static final String PREFIX = "runtimeprofiler_";
+    private static final int CHUNK = 8192;
+
+    private final long @NotNull [] buckets;
+    private final String @NotNull [] bucketLabels;
+    private final long @NotNull [] cumulative;
+
+    private final StringBuilder text = new StringBuilder(1 << 16);
+    private final StringBuilder labels = new StringBuilder(1 << 14);
+    private final char[] chunk = new char[CHUNK];
+    private byte[] encoded = new byte[1 << 16];
+    private LocData[] nodes = new LocData[256];
+    private int[] labelEnds = new int[256];
+    private int size;
+
+    /**
+     * Constructs a writer with the {@linkplain #DEFAULT_BUCKETS default histogram buckets}.
+     */
+    public OpenMetricsWriter() {
+        this(DEFAULT_BUCKETS);
+    }
+
+    /**
+     * @param bucketNanos the upper bounds of the histogram buckets in nanoseconds, in ascending order.
+     * @throws IllegalArgumentException if {@code bucketNanos} is not strictly ascending.
+     */
+    public OpenMetricsWriter(long @NotNull ... bucketNanos) {
+        for (int i = 1; i < bucketNanos.length; i++) {
+            if (bucketNanos[i] <= bucketNanos[i - 1]) {
+                throw new IllegalArgumentException("Bucket bounds must be strictly ascending");
+            }
+        }
+        this.buckets = bucketNanos.clone();
+        this.bucketLabels = new String[buckets.length];
+        final StringBuilder label = new StringBuilder();
+        for (int i = 0; i < buckets.length; i++) {
+            label.setLength(0);
+            appendSeconds(label, buckets[i]);
+            bucketLabels[i] = label.toString();
+        }
+        this.cumulative = new long[buckets.length];
+    }
+
+    /**
+     * Renders the statistics of the given profiler to {@code out}. {@code out} is neither flushed nor closed.
+     *
+     * @throws IOException if {@code out} throws.
+     */
+    public synchronized void write(@NotNull IProfiler profiler, @NotNull Writer out) throws IOException {
+        render(profiler);
+        for (int start = 0; start < text.length(); start += CHUNK) {
+            final int end = Math.min(start + CHUNK, text.length());
+            text.getChars(start, end, chunk, 0);
+            out.write(chunk, 0, end - start);
+        }
+    }
+
+    /**
+     * Renders the statistics of the given profiler to {@code out} as UTF-8. {@code out} is neither flushed nor closed.
+     *
+     * @throws IOException if {@code out} throws.
+     */
+    public synchronized void write(@NotNull IProfiler profiler, @NotNull OutputStream out) throws IOException {
+        final int length = encode(profiler);
+        out.write(encoded, 0, length);
+    }
+
+    /**
+     * Renders and encodes the statistics of the given profiler into the reused {@linkplain #encoded() byte buffer}.
+     * The caller must hold this writer's lock until it is done with the buffer.
+     *
+     * @return the number of encoded bytes.
+     */
+    int encode(@NotNull IProfiler profiler) {
+        render(profiler);
+        final int length = text.length();
+        // the text is mostly ASCII, so size for one byte per char and grow on the rare wider char
+        if (encoded.length < length + 4) {
+            encoded = new byte[Math.max(length + 4, encoded.length * 2)];
+        }
+        byte[] bytes = encoded;
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (bytes.length - n < 4 + (length - i)) {
+                // a char encodes to at most 3 bytes; surrogate pairs to 4 bytes for 2 chars
+                bytes = encoded = Arrays.copyOf(bytes, Math.max(bytes.length * 2, n + 4 + (length - i)));
+            }
+            if (c < 0x80) {
+                bytes[n++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[n++] = (byte) (0xC0 | (c >> 6));
+                bytes[n++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                bytes[n++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[n++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[n++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[n++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                bytes[n++] = (byte) '?';
+            } else {
+                bytes[n++] = (byte) (0xE0 | (c >> 12));
+                bytes[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[n++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return n;
+    }
+
+    /**
+     * @return the buffer filled by {@link #encode(IProfiler)}.
+     */
+    byte @NotNull [] encoded() {
+        return encoded;
+    }
+
+    private void render(@NotNull IProfiler profiler) {
+        collect(profiler);
+        text.setLength(0);
+
+        family("visits", "counter", null, "Visits of each location.");
+        for (int i = 0; i < size; i++) {
+            sample("visits_total", i).append(nodes[i].visits()).append('\n');
+        }
+        family("exceptional_visits", "counter", null, "Visits of each location that ended with an exception.");
+        for (int i = 0; i < size; i++) {
+            sample("exceptional_visits_total", i).append(nodes[i].exceptionalVisits()).append('\n');
+        }
+        family("time_seconds", "counter", "seconds", "Total time spent in each location.");
+        for (int i = 0; i < size; i++) {
+            appendSeconds(sample("time_seconds_total", i), nodes[i].totalNanos()).append('\n');
+        }
+        family("self_time_seconds", "counter", "seconds", "Time spent in each location, excluding its children.");
+        for (int i = 0; i < size; i++) {
+            appendSeconds(sample("self_time_seconds_total", i), nodes[i].selfNanos()).append('\n');
+        }
+        family("min_seconds", "gauge", "seconds", "Shortest visit of each location.");
+        for (int i = 0; i < size; i++) {
+            if (nodes[i].visits() != 0L) {
+                appendSeconds(sample("min_seconds", i), nodes[i].minNanos()).append('\n');
+            }
+        }
+        family("max_seconds", "gauge", "seconds", "Longest visit of each location.");
+        for (int i = 0; i < size; i++) {
+            if (nodes[i].visits() != 0L) {
+                appendSeconds(sample("max_seconds", i), nodes[i].maxNanos()).append('\n');
+            }
+        }
+        boolean histograms = false;
+        for (int i = 0; i < size; i++) {
+            final Histogram histogram = nodes[i].histogram();
+            if (histogram == null) {
+                continue;
+            }
+            if (!histograms) {
+                family("latency_seconds", "histogram", "seconds", "Latency distribution of each location.");
+                histograms = true;
+            }
+            histogram.cumulativeCounts(buckets, cumulative);
+            for (int b = 0; b < buckets.length; b++) {
+                bucket(i, bucketLabels[b]).append(cumulative[b]).append('\n');
+            }
+            bucket(i, "+Inf").append(histogram.count()).append('\n');
+            sample("latency_seconds_count", i).append(histogram.count()).append('\n');
+            appendSeconds(sample("latency_seconds_sum", i), nodes[i].sampledTotalNanos()).append('\n');
+        }
+        text.append("# EOF\n");
+    }
+
+    /**
+     * Collects the nodes of the given profiler and renders each one's label set once.
+     */
+    private void collect(@NotNull IProfiler profiler) {
+        size = 0;
+        labels.setLength(0);
+        final String label = profiler.getLabel();
+        for (Map.Entry<String, LocData> entry : profiler.getEntries()) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                labelEnds = Arrays.copyOf(labelEnds, size * 2);
+            }
+            nodes[size] = entry.getValue();
+            labels.append("profiler=\"");
+            escape(labels, label);
+            labels.append("\",path=\"");
+            escape(labels, entry.getKey());
+            labels.append('"');
+            labelEnds[size++] = labels.length();
+        }
+        // release the nodes of the previous render
+        Arrays.fill(nodes, size, nodes.length, null);
+    }
+
+    private void family(@NotNull String name, @NotNull String type, @Nullable String unit, @NotNull String help) {
+        text.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+        if (unit != null) {
+            text.append("# UNIT ").append(PREFIX).append(name).append(' ').append(unit).append('\n');
+        }
+        text.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+    }
+
+    /**
+     * Appends the name and label set of a sample of the {@code i}th node, followed by a space.
+     */
+    @NotNull
+    private StringBuilder sample(@NotNull String name, int i) {
+        text.append(PREFIX).append(name).append('{');
+        text.append(labels, (i == 0) ? 0 : labelEnds[i - 1], labelEnds[i]);
+        return text.append("} ");
+    }
+
+    @NotNull
+    private StringBuilder bucket(int i, @NotNull String le) {
+        text.append(PREFIX).append("latency_seconds_bucket{");
+        text.append(labels, (i == 0) ? 0 : labelEnds[i - 1], labelEnds[i]);
+        return text.append(",le=\"").append(le).append("\"} ");
+    }
+
+    /**
+     * Appends the given duration in seconds, without allocating.
+     */
+    @NotNull
+    static StringBuilder appendSeconds(@NotNull StringBuilder builder, long nanos) {
+        if (nanos < 0L) {
+            builder.append('-');
+            nanos = (nanos == Long.MIN_VALUE) ? Long.MAX_VALUE : -nanos;
+        }
+        builder.append(nanos / 1_000_000_000L);
+        long fraction = nanos % 1_000_000_000L;
+        if (fraction == 0L) {
+            return builder.append(".0");
+        }
+        builder.append('.');
+        int digits = 9;
+        while (fraction % 10L == 0L) {
+            fraction /= 10L;
+            digits--;
+        }
+        for (long scale = pow10(digits - 1); scale > fraction; scale /= 10L) {
+            builder.append('0');
+        }
+        return builder.append(fraction);
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1L;
+        for (int i = 0; i < exponent; i++) {
+            value *= 10L;
+        }
+        return value;
+    }
+
+    /**
+     * Appends a label value, escaping backslashes, double quotes and line feeds.
+     */
+    private static void escape(@NotNull StringBuilder builder, @NotNull String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> builder.append("\\\\");
+                case '"' -> builder.append("\\\"");
+                case '\n' -> builder.append("\\n");
+                default -> builder.append(c);
+            }
+        }
+    }
+}
\ No newline at end of file
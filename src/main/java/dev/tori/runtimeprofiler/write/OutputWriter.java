@@ -22,25 +22,33 @@
 package dev.tori.runtimeprofiler.write;
 
 import com.opencsv.CSVWriter;
+import dev.tori.runtimeprofiler.BinaryProfile;
 import dev.tori.runtimeprofiler.IProfiler;
 import dev.tori.runtimeprofiler.LocData;
-import dev.tori.runtimeprofiler.util.IOUtil;
+import dev.tori.runtimeprofiler.Overhead;
+import dev.tori.runtimeprofiler.config.Config;
 import dev.tori.runtimeprofiler.util.UnitUtil;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.File;
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.DecimalFormat;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -51,14 +59,14 @@ public enum OutputWriter {
 
     CSV {
         @Override
-        public void writeToPath(@NotNull IProfiler profiler, @NotNull Path path) throws IOException {
-            checkPathExists(path);
-            try (CSVWriter writer = new CSVWriter(new FileWriter(new File(String.valueOf(path), generateDateSuffix(profiler.getLabel()) + fileExtension())))) {
-                writer.writeNext(LocData.csvHeaders(profiler.getTimingPrecision()), true);
+        public void writeToFile(@NotNull IProfiler profiler, @NotNull Path file) throws IOException {
+            try (CSVWriter writer = new CSVWriter(new FileWriter(file.toFile()))) {
+                writer.writeNext(LocData.csvHeaders(profiler.getTimingPrecision(), hasHistograms(profiler), isSampled(profiler)), true);
+                TimeUnit timingPrecision = profiler.getTimingPrecision();
                 profiler.getEntries().forEach(entry -> {
                     LocData data = entry.getValue();
 
-                    writer.writeNext(data.csvRow(), true);
+                    writer.writeNext(data.csvRow(timingPrecision), true);
                 });
             }
         }
@@ -68,40 +76,105 @@ public enum OutputWriter {
             return ".csv";
         }
     },
+    /**
+     * An interactive report. Locations are embedded as compact JSON and rendered by the page as a collapsible call
+     * tree, with sorting, filtering and virtualized scrolling, so even very large profiles open quickly.
+     * <p>
+     * The tree is rebuilt from the profiler's depth-first entry order; use the report's own sorting rather than
+     * {@link IProfiler#sorted(java.util.Comparator)}.
+     */
     HTML {
         @Override
-        public void writeToPath(@NotNull IProfiler profiler, @NotNull Path path) throws IOException {
-            checkPathExists(path);
-
-            String template = IOUtil.readResourceAsString(HTML_TEMPLATE);
+        public void writeToFile(@NotNull IProfiler profiler, @NotNull Path file) throws IOException {
             TimeUnit timingPrecision = profiler.getTimingPrecision();
-
             String date = generateDateSuffix();
-
             String label = profiler.getLabel();
-            String title = label + date;
-
-            template = template.replace("$tableheader", LocData.headerHTML());
-
-            template = template.replaceAll("\\$title", title);
-            template = template.replaceAll("\\$label", label);
-            template = template.replaceAll("\\$date", date);
             String unitName = timingPrecision.name().toLowerCase(Locale.ROOT);
-            template = template.replaceAll("\\$timeunit", unitName.substring(0, unitName.length() - 1));
-            template = template.replaceAll("\\$abbrtimeunit", UnitUtil.abbreviate(timingPrecision));
 
-            Set<Map.Entry<String, LocData>> entries = profiler.getEntries();
+            Map<String, Template.Value> values = new HashMap<>();
+            values.put("title", Template.text(escapeXml(label + date)));
+            values.put("label", Template.text(escapeXml(label)));
+            values.put("date", Template.text(date));
+            values.put("timeunit", Template.text(unitName.substring(0, unitName.length() - 1)));
+            values.put("abbrtimeunit", Template.text(UnitUtil.abbreviate(timingPrecision)));
+            values.put("overhead", Template.text(escapeXml(Overhead.of(profiler).summary(timingPrecision))));
+            values.put("data", out -> writeJson(profiler, out));
+
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                Template.of(HTML_TEMPLATE).render(writer, values);
+            }
+        }
 
-            StringBuilder body = new StringBuilder();
-            entries.forEach(entry -> {
-                LocData data = entry.getValue();
-                String percent = new DecimalFormat("#.###").format(((double) data.total() / profiler.getTotalRuntime()) * 100);
-                body.append(data.dataHTML(percent));
-            });
+        /**
+         * Writes the report data. Each location is a run of numbers in the flat {@code nodes} array, described by
+         * {@code fields}; location names are indices into {@code names}.
+         */
+        private void writeJson(@NotNull IProfiler profiler, @NotNull Writer out) throws IOException {
+            TimeUnit unit = profiler.getTimingPrecision();
+            boolean histograms = hasHistograms(profiler);
+            boolean sampled = isSampled(profiler);
+            String separator = Config.pathSeparator();
+
+            out.write("{\"runtime\":");
+            out.write(Long.toString(profiler.getTotalRuntime()));
+            out.write(",\"separator\":");
+            writeJsonString(out, separator);
+            out.write(",\"fields\":[\"depth\",\"name\",\"visits\"");
+            if (sampled) {
+                out.write(",\"sampled\"");
+            }
+            out.write(",\"avg\",\"min\",\"max\"");
+            if (histograms) {
+                out.write(",\"p50\",\"p90\",\"p99\",\"p999\"");
+            }
+            out.write(",\"total\",\"self\"],\"nodes\":[");
 
-            template = template.replaceAll("\\$tablebody", body.toString());
+            Map<String, Integer> nameIndices = new HashMap<>();
+            List<String> names = new ArrayList<>();
+            boolean first = true;
+            for (Map.Entry<String, LocData> entry : profiler.getEntries()) {
+                LocData data = entry.getValue();
+                String key = entry.getKey();
+                int index = key.lastIndexOf(separator);
+                String name = index < 0 ? key : key.substring(index + separator.length());
+                Integer nameIndex = nameIndices.get(name);
+                if (nameIndex == null) {
+                    nameIndex = names.size();
+                    nameIndices.put(name, nameIndex);
+                    names.add(name);
+                }
+
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                out.write(Integer.toString(Math.max(data.depth(), 1)));
+                writeJsonNumber(out, nameIndex);
+                writeJsonNumber(out, data.visits());
+                if (sampled) {
+                    writeJsonNumber(out, data.sampledVisits());
+                }
+                writeJsonNumber(out, data.avg(unit));
+                writeJsonNumber(out, data.minTime(unit));
+                writeJsonNumber(out, data.maxTime(unit));
+                if (histograms) {
+                    writeJsonNumber(out, data.percentile(50.0D, unit));
+                    writeJsonNumber(out, data.percentile(90.0D, unit));
+                    writeJsonNumber(out, data.percentile(99.0D, unit));
+                    writeJsonNumber(out, data.percentile(99.9D, unit));
+                }
+                writeJsonNumber(out, data.total(unit));
+                writeJsonNumber(out, data.self(unit));
+            }
 
-            Files.writeString(new File(path.toString(), label + "_" + date + fileExtension()).toPath(), template);
+            out.write("],\"names\":[");
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeJsonString(out, names.get(i));
+            }
+            out.write("]}");
         }
 
         @Override
@@ -111,47 +184,165 @@ public enum OutputWriter {
     },
     MARKDOWN {
         @Override
-        public void writeToPath(@NotNull IProfiler profiler, @NotNull Path path) throws IOException {
-            checkPathExists(path);
+        public void writeToFile(@NotNull IProfiler profiler, @NotNull Path file) throws IOException {
+            writeTable(profiler, file, Template.of(MD_TEMPLATE),
+                    LocData.headerMD(hasHistograms(profiler), isSampled(profiler)), LocData::writeMD);
+        }
+
+        @Override
+        public String fileExtension() {
+            return ".md";
+        }
+    },
+    /**
+     * A compact binary format that can be read back with {@link BinaryProfile#open(Path)}.
+     *
+     * @since 2.1.0
+     */
+    BINARY {
+        @Override
+        public void writeToFile(@NotNull IProfiler profiler, @NotNull Path file) throws IOException {
+            BinaryProfile.write(profiler, file);
+        }
+
+        @Override
+        public String fileExtension() {
+            return ".rprof";
+        }
+    },
+    /**
+     * Collapsed stacks in the format read by Brendan Gregg's {@code flamegraph.pl} and most other flame graph tools:
+     * one line per location, its frames joined by {@code ;}, followed by its self time in nanoseconds. The weights are
+     * unitless to those tools, so nanoseconds keep locations that are faster than the profiler's timing precision.
+     * Locations without self time are omitted.
+     *
+     * @since 2.1.0
+     */
+    FOLDED {
+        @Override
+        public void writeToFile(@NotNull IProfiler profiler, @NotNull Path file) throws IOException {
+            String separator = Config.pathSeparator();
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                for (Map.Entry<String, LocData> entry : profiler.getEntries()) {
+                    long self = entry.getValue().selfNanos();
+                    if (self <= 0) {
+                        continue;
+                    }
+                    String stack = entry.getKey();
+                    if (!separator.equals(";")) {
+                        stack = stack.replace(';', '_').replace(separator, ";");
+                    }
+                    writer.write(stack);
+                    writer.write(' ');
+                    writer.write(Long.toString(self));
+                    writer.newLine();
+                }
+            }
+        }
 
-            String template = IOUtil.readResourceAsString(MD_TEMPLATE);
+        @Override
+        public String fileExtension() {
+            return ".folded";
+        }
+    },
+    /**
+     * A self-contained, interactive flame graph. Frames are streamed straight into an inline SVG, so the file can be
+     * opened in any browser without the profiler or any other tooling.
+     * <p>
+     * Frames are laid out from the profiler's depth-first entry order, so this should be given an unsorted profiler.
+     *
+     * @since 2.1.0
+     */
+    FLAMEGRAPH {
+        @Override
+        public void writeToFile(@NotNull IProfiler profiler, @NotNull Path file) throws IOException {
             TimeUnit timingPrecision = profiler.getTimingPrecision();
 
             String date = generateDateSuffix();
-
             String label = profiler.getLabel();
-            String title = label + date;
 
-            template = template.replace("$tableheader", LocData.headerMD());
-
-            template = template.replaceAll("\\$title", title);
-            template = template.replaceAll("\\$label", label);
-            template = template.replaceAll("\\$date", date);
-            String unitName = timingPrecision.name().toLowerCase(Locale.ROOT);
-            template = template.replaceAll("\\$timeunit", unitName.substring(0, unitName.length() - 1));
-            template = template.replaceAll("\\$abbrtimeunit", UnitUtil.abbreviate(timingPrecision));
-
-            Set<Map.Entry<String, LocData>> entries = profiler.getEntries();
+            Map<String, Template.Value> values = new HashMap<>();
+            values.put("title", Template.text(escapeXml(label + date)));
+            values.put("label", Template.text(escapeXml(label)));
+            values.put("date", Template.text(date));
+            values.put("totalnanos", Template.text(Long.toString(profiler.getTotalRuntime(TimeUnit.NANOSECONDS))));
+            values.put("abbrtimeunit", Template.text(UnitUtil.abbreviate(timingPrecision)));
+            values.put("unitnanos", Template.text(Long.toString(timingPrecision.toNanos(1))));
+            values.put("overhead", Template.text(escapeXml(Overhead.of(profiler).summary(timingPrecision))));
+            values.put("frames", out -> writeFrames(profiler, out));
+
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                Template.of(FLAMEGRAPH_TEMPLATE).render(writer, values);
+            }
+        }
 
-            StringBuilder body = new StringBuilder();
-            entries.forEach(entry -> {
+        private void writeFrames(@NotNull IProfiler profiler, @NotNull Writer writer) throws IOException {
+            String separator = Config.pathSeparator();
+            // offsets[d] is where the next frame at depth d starts
+            long[] offsets = new long[16];
+            for (Map.Entry<String, LocData> entry : profiler.getEntries()) {
                 LocData data = entry.getValue();
-                String percent = new DecimalFormat("#.###").format(((double) data.total() / profiler.getTotalRuntime()) * 100);
-                body.append(data.dataMD(percent));
-            });
-            template = template.replaceAll("\\$tablebody", body.toString());
+                String key = entry.getKey();
+                int depth = Math.max(data.depth(), 1);
+                if (depth + 1 >= offsets.length) {
+                    offsets = Arrays.copyOf(offsets, Math.max(offsets.length * 2, depth + 2));
+                }
+                long x = offsets[depth];
+                long width = data.totalNanos();
+                offsets[depth] = x + width;
+                offsets[depth + 1] = x;
+
+                int index = key.lastIndexOf(separator);
+                String name = index < 0 ? key : key.substring(index + separator.length());
+                writer.write("<g data-d=\"");
+                writer.write(Integer.toString(depth));
+                writer.write("\" data-x=\"");
+                writer.write(Long.toString(x));
+                writer.write("\" data-w=\"");
+                writer.write(Long.toString(width));
+                writer.write("\" data-s=\"");
+                writer.write(Long.toString(data.selfNanos()));
+                writer.write("\" data-v=\"");
+                writer.write(Long.toString(data.visits()));
+                writer.write("\" data-n=\"");
+                writer.write(escapeXml(name));
+                writer.write("\"><title>");
+                writer.write(escapeXml(key));
+                writer.write("</title><rect fill=\"");
+                writer.write(frameColor(name));
+                writer.write("\"/><text></text></g>\n");
+            }
+        }
 
-            Files.writeString(new File(path.toString(), label + "_" + date + fileExtension()).toPath(), template);
+        @Override
+        public String fileExtension() {
+            return ".html";
+        }
+    },
+    /**
+     * <a href="https://openmetrics.io">OpenMetrics</a> text, e.g. for the Prometheus node exporter's textfile
+     * collector.
+     *
+     * @see OpenMetricsWriter
+     * @since 2.1.0
+     */
+    OPENMETRICS {
+        @Override
+        public void writeToFile(@NotNull IProfiler profiler, @NotNull Path file) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                new OpenMetricsWriter().write(profiler, writer);
+            }
         }
 
         @Override
         public String fileExtension() {
-            return ".md";
+            return ".prom";
         }
     };
 
     private static final String HTML_TEMPLATE = "templates/template.html";
     private static final String MD_TEMPLATE = "templates/template.md";
+    private static final String FLAMEGRAPH_TEMPLATE = "templates/flamegraph.html";
 
     @Contract(pure = true)
     OutputWriter() {
@@ -174,7 +365,7 @@ public enum OutputWriter {
      * @return the generated filename with the current date and time suffix.
      */
     @NotNull
-    private static String generateDateSuffix(@NotNull String name) {
+    static String generateDateSuffix(@NotNull String name) {
         return name + "_" + generateDateSuffix();
     }
 
@@ -184,13 +375,215 @@ public enum OutputWriter {
      * @return the generated filename with the current date and time suffix.
      */
     @NotNull
-    private static String generateDateSuffix() {
+    static String generateDateSuffix() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss.SSS");
         LocalDateTime now = LocalDateTime.now();
         return now.format(formatter);
     }
 
-    public abstract void writeToPath(@NotNull IProfiler profiler, @NotNull Path path) throws IOException;
+    /**
+     * Formats the given time like {@link #generateDateSuffix()}.
+     *
+     * @param epochMillis the time, in milliseconds since the epoch.
+     * @since 2.1.0
+     */
+    @NotNull
+    static String generateDateSuffix(long epochMillis) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss.SSS");
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+        return time.format(formatter);
+    }
+
+    /**
+     * @return {@code true} if the given profiler's {@link LocData} record latency histograms.
+     * @since 2.1.0
+     */
+    private static boolean hasHistograms(@NotNull IProfiler profiler) {
+        for (Map.Entry<String, LocData> entry : profiler.getEntries()) {
+            return entry.getValue().histogram() != null;
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} if the given profiler's {@link LocData} only time sampled visits.
+     * @since 2.1.0
+     */
+    private static boolean isSampled(@NotNull IProfiler profiler) {
+        for (Map.Entry<String, LocData> entry : profiler.getEntries()) {
+            return entry.getValue().sampling().isEnabled();
+        }
+        return false;
+    }
+
+    /**
+     * Renders a table report from {@code template}, streaming one row per location straight to the output file.
+     *
+     * @since 2.1.0
+     */
+    private static void writeTable(@NotNull IProfiler profiler, @NotNull Path file, @NotNull Template template,
+                                   @NotNull String header, @NotNull RowWriter rows) throws IOException {
+        TimeUnit timingPrecision = profiler.getTimingPrecision();
+        String date = generateDateSuffix();
+        String label = profiler.getLabel();
+        String unitName = timingPrecision.name().toLowerCase(Locale.ROOT);
+        String abbreviation = UnitUtil.abbreviate(timingPrecision);
+
+        Map<String, Template.Value> values = new HashMap<>();
+        values.put("title", Template.text(label + date));
+        values.put("label", Template.text(label));
+        values.put("date", Template.text(date));
+        values.put("timeunit", Template.text(unitName.substring(0, unitName.length() - 1)));
+        values.put("abbrtimeunit", Template.text(abbreviation));
+        values.put("tableheader", Template.text(header.replace("$abbrtimeunit", abbreviation)));
+        values.put("overhead", Template.text(Overhead.of(profiler).summary(timingPrecision)));
+        values.put("tablebody", out -> {
+            double totalRuntime = profiler.getTotalRuntime(TimeUnit.NANOSECONDS);
+            for (Map.Entry<String, LocData> entry : profiler.getEntries()) {
+                LocData data = entry.getValue();
+                rows.write(data, out, formatPercent((data.totalNanos() / totalRuntime) * 100), timingPrecision);
+            }
+        });
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            template.render(writer, values);
+        }
+    }
+
+    /**
+     * Formats {@code percent} like {@code new DecimalFormat("#.###")}, without its per-call allocations.
+     *
+     * @since 2.1.0
+     */
+    @NotNull
+    static String formatPercent(double percent) {
+        if (!Double.isFinite(percent) || percent < 0 || percent >= 1.0E6) {
+            return new DecimalFormat("#.###").format(percent);
+        }
+        long thousandths = (long) Math.rint(percent * 1000.0D);
+        long whole = thousandths / 1000;
+        int fraction = (int) (thousandths % 1000);
+        if (fraction == 0) {
+            return Long.toString(whole);
+        }
+        int digits = 3;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+        String decimals = Integer.toString(fraction);
+        StringBuilder sb = new StringBuilder(24).append(whole).append('.');
+        for (int i = decimals.length(); i < digits; i++) {
+            sb.append('0');
+        }
+        return sb.append(decimals).toString();
+    }
+
+    private static void writeJsonNumber(@NotNull Writer out, long value) throws IOException {
+        out.write(',');
+        out.write(Long.toString(value));
+    }
+
+    /**
+     * Writes {@code text} as a JSON string that is also safe to embed in an HTML {@code <script>} element.
+     *
+     * @since 2.1.0
+     */
+    private static void writeJsonString(@NotNull Writer out, @NotNull String text) throws IOException {
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20 || c == '<' || c == '>' || c == '&' || c == '\u2028' || c == '\u2029') {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    /**
+     * @return {@code text} with the characters that are significant in XML and HTML replaced by entities.
+     * @since 2.1.0
+     */
+    @NotNull
+    static String escapeXml(@NotNull String text) {
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String entity = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null) {
+                if (sb == null) {
+                    sb = new StringBuilder(text.length() + 16).append(text, 0, i);
+                }
+                sb.append(entity);
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb == null ? text : sb.toString();
+    }
+
+    /**
+     * @return a warm flame graph color derived from {@code name}, so a location keeps its color across exports.
+     * @since 2.1.0
+     */
+    @NotNull
+    private static String frameColor(@NotNull String name) {
+        int hash = name.hashCode() * 0x9E3779B9;
+        int r = 205 + ((hash >>> 8) & 0x3F) % 50;
+        int g = 80 + ((hash >>> 16) & 0xFF) % 150;
+        int b = 40 + ((hash >>> 24) & 0x3F) % 55;
+        return "rgb(" + r + "," + g + "," + b + ")";
+    }
+
+    /**
+     * Writes one table row for a location.
+     *
+     * @since 2.1.0
+     */
+    @FunctionalInterface
+    private interface RowWriter {
+
+        void write(@NotNull LocData data, @NotNull Appendable out, @NotNull String percent, @NotNull TimeUnit timeUnit) throws IOException;
+    }
+
+    /**
+     * Writes the given profiler to a new file in {@code path}, named after its label and the current date and time.
+     *
+     * @param profiler the profiler to write.
+     * @param path     the directory to write to; must exist.
+     * @throws FileNotFoundException if {@code path} does not exist.
+     */
+    public void writeToPath(@NotNull IProfiler profiler, @NotNull Path path) throws IOException {
+        checkPathExists(path);
+        writeToFile(profiler, path.resolve(generateDateSuffix(profiler.getLabel()) + fileExtension()));
+    }
+
+    /**
+     * Writes the given profiler to {@code file}, replacing it if it exists.
+     *
+     * @param profiler the profiler to write.
+     * @param file     the file to write to.
+     * @since 2.1.0
+     */
+    public abstract void writeToFile(@NotNull IProfiler profiler, @NotNull Path file) throws IOException;
 
     public abstract String fileExtension();
 
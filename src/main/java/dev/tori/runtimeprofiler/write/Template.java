@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.tori.runtimeprofiler.write;
+
+import dev.tori.runtimeprofiler.util.IOUtil;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A report template, parsed once into literal text and {@code $placeholder} segments, that renders in a single pass
+ * straight to a {@link Writer}.
+ * <p>
+ * A placeholder is a {@code $} followed by letters. Placeholders without a value are written as they appear in the
+ * template.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+final class Template {
+
+    private static final Map<String, Template> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Even entries are literal text, odd entries are placeholder names.
+     */
+    private final String[] segments;
+
+    @Contract(pure = true)
+    private Template(@NotNull String[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * @return the compiled template for the given resource, parsing it on first use.
+     * @throws IllegalArgumentException if the resource does not exist.
+     */
+    @NotNull
+    static Template of(@NotNull String resourcePath) {
+        return CACHE.computeIfAbsent(resourcePath, path -> compile(IOUtil.readResourceAsString(path)));
+    }
+
+    @NotNull
+    static Template compile(@NotNull String source) {
+        final List<String> segments = new ArrayList<>();
+        int literalStart = 0;
+        int i = source.indexOf('$');
+        while (i >= 0) {
+            int end = i + 1;
+            while (end < source.length() && Character.isLetter(source.charAt(end))) {
+                end++;
+            }
+            if (end > i + 1) {
+                segments.add(source.substring(literalStart, i));
+                segments.add(source.substring(i + 1, end));
+                literalStart = end;
+            }
+            i = source.indexOf('$', end);
+        }
+        segments.add(source.substring(literalStart));
+        return new Template(segments.toArray(String[]::new));
+    }
+
+    /**
+     * Writes this template to {@code out}, replacing each placeholder with its value in {@code values}.
+     */
+    void render(@NotNull Writer out, @NotNull Map<String, Value> values) throws IOException {
+        for (int i = 0; i < segments.length; i++) {
+            final String segment = segments[i];
+            if ((i & 1) == 0) {
+                out.write(segment);
+                continue;
+            }
+            final Value value = values.get(segment);
+            if (value == null) {
+                out.write('$');
+                out.write(segment);
+            } else {
+                value.write(out);
+            }
+        }
+    }
+
+    /**
+     * @return a value that writes {@code text} as-is.
+     */
+    @NotNull
+    @Contract(pure = true)
+    static Value text(@NotNull String text) {
+        return out -> out.write(text);
+    }
+
+    /**
+     * The content of a placeholder, written as the template is rendered.
+     */
+    @FunctionalInterface
+    interface Value {
+
+        void write(@NotNull Writer out) throws IOException;
+    }
+}
\ No newline at end of file
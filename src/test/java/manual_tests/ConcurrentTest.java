@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package manual_tests;
+
+import dev.tori.runtimeprofiler.ConcurrentProfiler;
+import dev.tori.runtimeprofiler.Location;
+import dev.tori.runtimeprofiler.write.ConsoleWriter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures push/pop throughput of a shared {@link ConcurrentProfiler} as the thread count grows.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+@SuppressWarnings("NonFinalUtilityClass")
+public class ConcurrentTest {
+
+    private static final int OPS_PER_THREAD = 2_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentProfiler profiler = null;
+        for (int threads = 1; threads <= 32; threads *= 2) {
+            profiler = new ConcurrentProfiler("ConcurrentTest", TimeUnit.NANOSECONDS);
+            long nanos = run(profiler, threads);
+            double opsPerSec = (double) threads * OPS_PER_THREAD / nanos * 1e9;
+            System.out.printf("%2d threads: %,.0f push/pop pairs per second%n", threads, opsPerSec);
+        }
+        ConsoleWriter.AVG_ONLY.print(profiler, System.out);
+    }
+
+    private static long run(ConcurrentProfiler profiler, int threads) throws InterruptedException {
+        Location outer = profiler.location("Outer");
+        Location inner = profiler.location("Inner");
+        profiler.start();
+
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                profiler.push(outer);
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    profiler.push(inner);
+                    profiler.pop();
+                }
+                profiler.pop();
+            });
+            workers[t].start();
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        profiler.stop();
+        return elapsed;
+    }
+}
\ No newline at end of file
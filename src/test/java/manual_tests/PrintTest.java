@@ -21,9 +21,12 @@
 
 package manual_tests;
 
+import com.sun.management.ThreadMXBean;
+import dev.tori.runtimeprofiler.Location;
 import dev.tori.runtimeprofiler.Profiler;
 import dev.tori.runtimeprofiler.write.ConsoleWriter;
 
+import java.lang.management.ManagementFactory;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -34,23 +37,33 @@ import java.util.concurrent.TimeUnit;
 public class PrintTest {
 
     public static void main(String[] args) {
+        run(); // warm-up
+
+        ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
         Profiler profiler = run();
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
 
         ConsoleWriter.AVG_ONLY.print(profiler, System.out);
+        System.out.println("Allocated %s bytes over %s push/pop pairs".formatted(allocated, 100 + 100 * 100 + 100 * 100 * 100));
     }
 
     private static Profiler run() {
         Profiler profiler = new Profiler("TestProfiler", TimeUnit.NANOSECONDS);
+        Location loopAA = profiler.location("Loop_AA");
+        Location loopAB = profiler.location("Loop_AB");
+        Location loopAC = profiler.location("Loop_AC");
         profiler.start();
 
         profiler.push("Loop_A");
         boolean b = false;
         for (int i = 0; i < 100; i++) {
-            profiler.push("Loop_AA");
+            profiler.push(loopAA);
             for (int j = 0; j < 100; j++) {
-                profiler.push("Loop_AB");
+                profiler.push(loopAB);
                 for (int k = 0; k < 100; k++) {
-                    profiler.push("Loop_AC");
+                    profiler.push(loopAC);
                     b = !b;
                     profiler.pop();
                 }
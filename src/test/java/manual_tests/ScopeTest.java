@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package manual_tests;
+
+import com.sun.management.ThreadMXBean;
+import dev.tori.runtimeprofiler.LocData;
+import dev.tori.runtimeprofiler.Location;
+import dev.tori.runtimeprofiler.Profiler;
+import dev.tori.runtimeprofiler.Scope;
+import dev.tori.runtimeprofiler.write.ConsoleWriter;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that scopes do not allocate in steady state and that exceptional exits are recorded.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+@SuppressWarnings("NonFinalUtilityClass")
+public class ScopeTest {
+
+    private static final int OUTER = 1000;
+    private static final int INNER = 1000;
+    private static final int FAILURES = 10;
+
+    public static void main(String[] args) {
+        Profiler profiler = new Profiler("ScopeTest", TimeUnit.NANOSECONDS);
+        run(profiler); // warm-up
+
+        ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        run(profiler);
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        ConsoleWriter.FULL.print(profiler, System.out);
+        System.out.println("Allocated %s bytes over %s scopes".formatted(allocated, OUTER + OUTER * INNER));
+
+        check(profiler, "Failing", FAILURES, FAILURES);
+        check(profiler, "Inner", OUTER * INNER + FAILURES, FAILURES);
+        check(profiler, "Thrown", FAILURES, FAILURES);
+        System.out.println("Exceptional visits OK");
+    }
+
+    private static void check(Profiler profiler, String name, long visits, long exceptionalVisits) {
+        long actualVisits = 0;
+        long actualExceptional = 0;
+        for (var entry : profiler.getEntries()) {
+            LocData data = entry.getValue();
+            if (data.location() != null && data.location().name().equals(name)) {
+                actualVisits += data.visits();
+                actualExceptional += data.exceptionalVisits();
+            }
+        }
+        if (actualVisits != visits || actualExceptional != exceptionalVisits) {
+            throw new AssertionError("%s: expected %s visits (%s exceptional) but was %s (%s exceptional)"
+                    .formatted(name, visits, exceptionalVisits, actualVisits, actualExceptional));
+        }
+    }
+
+    private static void run(Profiler profiler) {
+        Location outer = profiler.location("Outer");
+        Location inner = profiler.location("Inner");
+        Location failing = profiler.location("Failing");
+        Location thrown = profiler.location("Thrown");
+        profiler.start();
+
+        for (int i = 0; i < OUTER; i++) {
+            try (Scope scope = profiler.scope(outer)) {
+                for (int j = 0; j < INNER; j++) {
+                    try (Scope ignored = profiler.scope(inner)) {
+                        scope.depth();
+                    }
+                }
+            }
+        }
+
+        // The plain push below is never popped; closing the scope pops both as exceptional.
+        for (int i = 0; i < FAILURES; i++) {
+            try (Scope scope = profiler.scope(failing)) {
+                profiler.push(inner);
+                throw new IllegalStateException();
+            } catch (IllegalStateException ignored) {
+            }
+        }
+
+        // Nothing is left open here, so the exception has to be reported.
+        for (int i = 0; i < FAILURES; i++) {
+            try (Scope scope = profiler.scope(thrown)) {
+                try {
+                    throw new IllegalStateException();
+                } catch (IllegalStateException e) {
+                    throw scope.fail(e);
+                }
+            } catch (IllegalStateException ignored) {
+            }
+        }
+
+        profiler.stop();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2024-2025 7orivorian.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package manual_tests;
+
+import dev.tori.runtimeprofiler.LocData;
+import dev.tori.runtimeprofiler.LocDataFactory;
+import dev.tori.runtimeprofiler.Profiler;
+import dev.tori.runtimeprofiler.clock.VirtualClock;
+import dev.tori.runtimeprofiler.write.ConsoleWriter;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a profiler with a {@link VirtualClock} and checks that its statistics are exact.
+ *
+ * @author <a href="https://github.com/7orivorian">7orivorian</a>
+ * @since 2.1.0
+ */
+@SuppressWarnings("NonFinalUtilityClass")
+public class VirtualClockTest {
+
+    public static void main(String[] args) {
+        VirtualClock clock = new VirtualClock();
+        Profiler profiler = new Profiler("VirtualClockTest", new LocDataFactory(TimeUnit.MILLISECONDS).withClock(clock), 8);
+        profiler.start();
+
+        // outer: 10 ms, then inner for 5 ms, then 1 ms more
+        profiler.push("outer");
+        clock.advance(10, TimeUnit.MILLISECONDS);
+        profiler.push("inner");
+        clock.advance(5, TimeUnit.MILLISECONDS);
+        profiler.pop();
+        clock.advance(1, TimeUnit.MILLISECONDS);
+        profiler.pop();
+
+        // outer: 2 ms, then inner for 3 ms
+        profiler.push("outer");
+        clock.advance(2, TimeUnit.MILLISECONDS);
+        profiler.push("inner");
+        clock.advance(3, TimeUnit.MILLISECONDS);
+        profiler.pop();
+        profiler.pop();
+
+        clock.advance(4, TimeUnit.MILLISECONDS);
+        profiler.stop();
+
+        ConsoleWriter.FULL.print(profiler, System.out);
+
+        check(profiler, "root", 1, 25, 4, 25, 25);
+        check(profiler, "root/outer", 2, 21, 13, 5, 16);
+        check(profiler, "root/outer/inner", 2, 8, 8, 3, 5);
+        if (profiler.getTotalRuntime() != 25L) {
+            throw new AssertionError("Expected a runtime of 25 ms but was " + profiler.getTotalRuntime());
+        }
+        System.out.println("Statistics OK");
+    }
+
+    private static void check(Profiler profiler, String path, long visits, long total, long self, long min, long max) {
+        for (Map.Entry<String, LocData> entry : profiler.getEntries()) {
+            if (!entry.getKey().equals(path)) {
+                continue;
+            }
+            LocData data = entry.getValue();
+            long[] expected = {visits, total, self, min, max};
+            long[] actual = {data.visits(), data.total(), data.self(), data.minTime(), data.maxTime()};
+            if (!Arrays.equals(expected, actual)) {
+                throw new AssertionError("%s: expected visits, total, self, min, max of %s but was %s".formatted(
+                        path, Arrays.toString(expected), Arrays.toString(actual)));
+            }
+            return;
+        }
+        throw new AssertionError(path + " was never visited");
+    }
+}
\ No newline at end of file